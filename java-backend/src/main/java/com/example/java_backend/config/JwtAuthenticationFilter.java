@@ -0,0 +1,67 @@
+package com.example.java_backend.config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.java_backend.service.JwtService;
+import com.example.java_backend.service.JwtService.JwtPrincipal;
+import com.example.java_backend.service.TokenRevocationService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Verifies "Authorization: Bearer" tokens and exposes the caller as the
+ * {@link #PRINCIPAL_ATTRIBUTE} request attribute. Requests without a token pass through
+ * untouched (endpoints are not locked down yet); a token that is present but invalid
+ * expired or revoked (logged out) is rejected with 401, except on the auth endpoints
+ * themselves.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = "jwtPrincipal";
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+
+    public JwtAuthenticationFilter(JwtService jwtService, TokenRevocationService revocationService) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // login/registration must work even when the client still holds a stale token
+        return request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        JwtPrincipal principal = jwtService.verify(header.substring(BEARER.length()).trim());
+        if (principal == null || revocationService.isRevoked(principal.jti())) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Invalid or expired token\"}");
+            return;
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+        chain.doFilter(request, response);
+    }
+}
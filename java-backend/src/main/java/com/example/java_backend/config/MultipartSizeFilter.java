@@ -0,0 +1,71 @@
+package com.example.java_backend.config;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-endpoint multipart size limits, checked on Content-Length before the container
+ * parses (and spools to disk) a single byte of the body. spring.servlet.multipart is the
+ * servlet-wide ceiling and only needs to fit the admin certificate zip import; every other
+ * multipart request is held to the much smaller single-upload limit here. Multipart
+ * requests without a Content-Length are refused with 411 so the limit cannot be bypassed
+ * by chunked encoding.
+ */
+@Component
+public class MultipartSizeFilter extends OncePerRequestFilter {
+
+    private static final Pattern CERTIFICATE_IMPORT = Pattern.compile("^/api/admin/courses/[^/]+/certificates/import$");
+
+    private final long maxRequestBytes;
+    private final long certificateImportMaxRequestBytes;
+
+    public MultipartSizeFilter(
+            @Value("${app.uploads.multipart.max-request-bytes:12582912}") long maxRequestBytes,
+            @Value("${app.certificates.batch.max-request-bytes:209715200}") long certificateImportMaxRequestBytes) {
+        this.maxRequestBytes = maxRequestBytes;
+        this.certificateImportMaxRequestBytes = certificateImportMaxRequestBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.regionMatches(true, 0, "multipart/", 0, "multipart/".length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long limit = CERTIFICATE_IMPORT.matcher(request.getRequestURI()).matches()
+                ? certificateImportMaxRequestBytes
+                : maxRequestBytes;
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            reject(response, HttpStatus.LENGTH_REQUIRED, "Uploads must declare a Content-Length");
+            return;
+        }
+        if (length > limit) {
+            reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Upload exceeds the " + limit + " byte limit");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        // the body is never read; close the connection instead of draining it
+        response.setHeader("Connection", "close");
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.java_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs (buffer flushes, sweepers, ...)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
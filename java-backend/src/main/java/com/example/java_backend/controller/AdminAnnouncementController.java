@@ -1,8 +1,10 @@
 package com.example.java_backend.controller;
 
 import java.util.List;
-import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,27 +12,47 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.java_backend.dto.admin.AnnouncementCreateRequest;
 import com.example.java_backend.dto.admin.AnnouncementDTO;
+import com.example.java_backend.dto.admin.AnnouncementDeliveryJobDTO;
+import com.example.java_backend.dto.admin.AnnouncementRecipientRow;
 import com.example.java_backend.service.AnnouncementService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/admin/announcements")
 //@CrossOrigin(origins = "*")
 public class AdminAnnouncementController {
 
     private final AnnouncementService announcementService;
+    private final long exportTimeoutMs;
 
-    public AdminAnnouncementController(AnnouncementService announcementService) {
+    public AdminAnnouncementController(AnnouncementService announcementService,
+                                       @Value("${app.announcements.export.timeout-ms:300000}") long exportTimeoutMs) {
         this.announcementService = announcementService;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
     // Create announcement (target: ALL | USERS | BATCH)
     @PostMapping
     public ResponseEntity<AnnouncementDTO> create(@RequestBody AnnouncementCreateRequest req) {
-        return ResponseEntity.ok(announcementService.create(req));
+        AnnouncementDTO dto = announcementService.create(req);
+        // 202 when recipients are still being delivered in the background
+        return dto.getDeliveryJobId() != null
+                ? ResponseEntity.accepted().body(dto)
+                : ResponseEntity.ok(dto);
+    }
+
+    // Progress of a background recipient delivery (job id is returned by create)
+    @GetMapping("/delivery-jobs/{jobId}")
+    public ResponseEntity<AnnouncementDeliveryJobDTO> deliveryJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(announcementService.getDeliveryJob(jobId));
     }
 
     // List all announcements (admin view)
@@ -39,10 +61,49 @@ public class AdminAnnouncementController {
         return ResponseEntity.ok(announcementService.listAll());
     }
 
-    // Inspect recipients for a specific announcement (admin view)
+    // Inspect recipients for a specific announcement (admin view), full list. Same JSON
+    // array as before, but streamed page by page like the export instead of built in memory.
     @GetMapping("/{id}/recipients")
-    public ResponseEntity<List<Map<String, Object>>> recipients(@PathVariable Long id) {
-        return ResponseEntity.ok(announcementService.listRecipients(id));
+    public WebAsyncTask<Void> recipients(@PathVariable Long id, HttpServletResponse response) {
+        StreamingResponseBody body = announcementService.exportRecipients(id, "json");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        return streamed(body, response);
+    }
+
+    // Same rows one keyset page at a time (?afterUserId=<last userId of previous page>&limit=500)
+    @GetMapping("/{id}/recipients/page")
+    public ResponseEntity<List<AnnouncementRecipientRow>> recipientsPage(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long afterUserId,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(announcementService.listRecipients(id, afterUserId, limit));
+    }
+
+    // Full recipient export streamed to the client (?format=csv | ndjson | json). Runs as an
+    // async task with its own timeout; other async requests keep the default one.
+    @GetMapping("/{id}/recipients/export")
+    public WebAsyncTask<Void> exportRecipients(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        StreamingResponseBody body = announcementService.exportRecipients(id, format);
+        String extension = format.toLowerCase();
+        response.setContentType(switch (extension) {
+            case "csv" -> "text/csv";
+            case "json" -> MediaType.APPLICATION_JSON_VALUE;
+            default -> "application/x-ndjson";
+        });
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"announcement-" + id + "-recipients." + extension + "\"");
+        return streamed(body, response);
+    }
+
+    private WebAsyncTask<Void> streamed(StreamingResponseBody body, HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
     // ✅ Delete announcement
@@ -1,17 +1,25 @@
 package com.example.java_backend.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.example.java_backend.dto.admin.AdminUserDTO;
+import com.example.java_backend.dto.admin.CertificateImportReport;
+import com.example.java_backend.dto.admin.UserImportReport;
 import com.example.java_backend.service.AdminUserService;
+import com.example.java_backend.service.CertificateImportService;
+import com.example.java_backend.service.UserImportService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -19,9 +27,14 @@ import com.example.java_backend.service.AdminUserService;
 public class AdminUserController {
 
     private final AdminUserService adminUserService;
+    private final UserImportService userImportService;
+    private final CertificateImportService certificateImportService;
 
-    public AdminUserController(AdminUserService adminUserService) {
+    public AdminUserController(AdminUserService adminUserService, UserImportService userImportService,
+                               CertificateImportService certificateImportService) {
         this.adminUserService = adminUserService;
+        this.userImportService = userImportService;
+        this.certificateImportService = certificateImportService;
     }
 
     @GetMapping("/users")
@@ -37,4 +50,28 @@ public ResponseEntity<?> updateUserStatus(
     return ResponseEntity.ok(adminUserService.updateAccountStatus(id, accountStatus));
 }
 
+    // CSV with header fullName,email,password[,batchId,studentId]; returns a per-row report
+    @PostMapping(value = "/users/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(required = false) String batchId) throws IOException {
+        try {
+            UserImportReport report = userImportService.importCsv(file.getInputStream(), batchId);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Zip of a cohort's certificates, one file per student named <email or studentId>.<ext>
+    @PostMapping(value = "/courses/{courseId}/certificates/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importCertificates(@PathVariable Long courseId,
+                                                @RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            CertificateImportReport report = certificateImportService.importZip(courseId, file.getInputStream());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
 }  
\ No newline at end of file
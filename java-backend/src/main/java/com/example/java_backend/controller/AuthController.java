@@ -3,9 +3,12 @@ package com.example.java_backend.controller;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,6 +17,9 @@ import com.example.java_backend.dto.auth.AuthResponse;
 import com.example.java_backend.dto.auth.LoginRequest;
 import com.example.java_backend.dto.auth.RegisterRequest;
 import com.example.java_backend.service.AuthService;
+import com.example.java_backend.service.LoginThrottle;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
@@ -23,6 +29,7 @@ import com.example.java_backend.service.AuthService;
 public class AuthController {
 
     @Autowired private AuthService authService;
+    @Autowired private LoginThrottle loginThrottle;
 
     @PostMapping("/register")
     public AuthResponse register(@RequestBody RegisterRequest request) {
@@ -30,7 +37,10 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public AuthResponse login(@RequestBody LoginRequest request) {
+    public AuthResponse login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // 429 before any lookup or hashing. Behind the proxy getRemoteAddr is the client from
+        // X-Forwarded-For (server.forward-headers-strategy=native), not the proxy itself
+        loginThrottle.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
         return authService.login(request);
     }
 
@@ -41,6 +51,22 @@ public AuthResponse googleLogin(@RequestBody Map<String, String> request) {
 }
 
 
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@RequestBody Map<String, String> request) {
+        return authService.refresh(request.get("refreshToken"));
+    }
+
+    // The JWT filter skips /api/auth/, so the access token is read here
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) Map<String, String> request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String refreshToken = request != null ? request.get("refreshToken") : null;
+        String accessToken = authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)
+                ? authorization.substring(7).trim() : null;
+        authService.logout(refreshToken, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/verify")
 public String verifyEmail(@RequestParam("token") String token) {
     return authService.verifyEmail(token);
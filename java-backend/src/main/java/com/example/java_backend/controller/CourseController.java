@@ -2,6 +2,10 @@ package com.example.java_backend.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,10 +13,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.java_backend.dto.course.CourseDTO;
+import com.example.java_backend.dto.course.CoursePageDTO;
+import com.example.java_backend.dto.course.CourseSearchResult;
+import com.example.java_backend.service.AcceptEncoding;
+import com.example.java_backend.service.CourseCatalogCache;
+import com.example.java_backend.service.CourseQueryService;
 import com.example.java_backend.service.CourseService;
 
 @RestController
@@ -24,14 +35,83 @@ import com.example.java_backend.service.CourseService;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseQueryService courseQueryService;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseQueryService courseQueryService) {
         this.courseService = courseService;
+        this.courseQueryService = courseQueryService;
     }
 
+    // Pre-encoded catalog; clients revalidate with If-None-Match and usually get a 304
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<byte[]> getCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CourseCatalogCache.Snapshot catalog = courseService.getCatalogSnapshot();
+        boolean gzip = AcceptEncoding.accepts(acceptEncoding, "gzip");
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+        boolean notModified = matches(ifNoneMatch, catalog);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? catalog.gzip() : catalog.json());
+    }
+
+    // Either encoding's tag identifies the same version; proxies may have weakened it (W/)
+    private static boolean matches(String ifNoneMatch, CourseCatalogCache.Snapshot catalog) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) {
+                t = t.substring(2);
+            }
+            if (t.equals("*") || t.equals(catalog.etag()) || t.equals(catalog.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Keyset pages with only the requested fields, e.g. ?fields=id,title,price,rating&sort=rating&cursor=...
+    @GetMapping("/catalog")
+    public ResponseEntity<?> getCatalogPage(
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CoursePageDTO page = courseQueryService.getPage(fields, sort, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Full-text (title/description) search with level/mode/price facets, sorted by rating or participants
+    @GetMapping("/search")
+    public ResponseEntity<CourseSearchResult> searchCourses(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> level,
+            @RequestParam(required = false) List<String> mode,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "rating") String sort,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(courseService.searchCourses(q, level, mode, minPrice, maxPrice, sort, order, page, size));
     }
 
      @PostMapping
@@ -0,0 +1,67 @@
+package com.example.java_backend.controller;
+
+import java.util.NoSuchElementException;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.java_backend.config.JwtAuthenticationFilter;
+import com.example.java_backend.dto.course.CourseReviewRequest;
+import com.example.java_backend.service.CourseReviewService;
+import com.example.java_backend.service.JwtService.JwtPrincipal;
+
+@RestController
+@RequestMapping("/api/courses/{courseId}/reviews")
+public class CourseReviewController {
+
+    private final CourseReviewService courseReviewService;
+
+    public CourseReviewController(CourseReviewService courseReviewService) {
+        this.courseReviewService = courseReviewService;
+    }
+
+    // The reviewer is always the verified token's user; anonymous calls are rejected
+    @PostMapping
+    public ResponseEntity<?> submitReview(
+            @PathVariable Long courseId,
+            @RequestBody CourseReviewRequest request,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Sign in to review this course");
+        }
+        try {
+            return ResponseEntity.ok(courseReviewService.submitReview(
+                    courseId, principal.userId(), request.getRating(), request.getComment()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // the same student submitted twice at once; the first one won
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Review already submitted, please retry");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getReviews(@PathVariable Long courseId,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(courseReviewService.getReviews(courseId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
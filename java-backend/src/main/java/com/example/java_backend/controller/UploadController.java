@@ -0,0 +1,188 @@
+package com.example.java_backend.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import com.example.java_backend.service.UploadFileService;
+import com.example.java_backend.service.UploadFileService.StoredFile;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the uploads directory (certificates, course images) with cache headers,
+ * content-hash ETags, single byte ranges (resumable/partial PDF downloads) and pre-built
+ * ".br"/".gz" siblings. Replaces the default resource handler for /uploads/**.
+ */
+@RestController
+@RequestMapping("/uploads")
+public class UploadController {
+
+    private record ByteRange(long start, long count) {}
+
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, 0);
+
+    // <sha-256>.<ext> names (certificates) never change content, so caches may keep them for good
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]+");
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    private final UploadFileService uploadFileService;
+    private final String cacheControl;
+
+    public UploadController(UploadFileService uploadFileService,
+                            @Value("${app.uploads.cache-max-age-seconds:86400}") long maxAgeSeconds) {
+        this.uploadFileService = uploadFileService;
+        this.cacheControl = (maxAgeSeconds > 0
+                ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache()).getHeaderValue();
+    }
+
+    @GetMapping("/**")
+    public void getUpload(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String prefix = request.getContextPath() + "/uploads/";
+        String uri = request.getRequestURI();
+        Optional<StoredFile> found = uri.startsWith(prefix)
+                ? uploadFileService.find(UriUtils.decode(uri.substring(prefix.length()), StandardCharsets.UTF_8))
+                : Optional.empty();
+        if (found.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        // byte ranges address the identity encoding, so encoded variants are only sent whole
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        StoredFile file = rangeHeader != null
+                ? found.get()
+                : uploadFileService.negotiate(found.get(), request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        response.setHeader(HttpHeaders.ETAG, file.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CONTENT_ADDRESSED.matcher(found.get().path().getFileName().toString()).matches() ? IMMUTABLE : cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (notModified(request, file)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(file.mediaType().toString());
+        if (file.contentEncoding() != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, file.contentEncoding());
+        }
+
+        long start = 0;
+        long count = file.length();
+        if (rangeHeader != null && rangeStillValid(request, file)) {
+            ByteRange range = parseRange(rangeHeader, file.length());
+            if (range == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length());
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (range != null) {
+                start = range.start();
+                count = range.count();
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + count - 1) + "/" + file.length());
+            }
+        }
+
+        if ("HEAD".equals(request.getMethod())) {
+            response.setContentLengthLong(count);
+            return;
+        }
+        uploadFileService.transfer(file, start, count, request, response);
+    }
+
+    // If-None-Match wins over If-Modified-Since; proxies may have weakened the tag (W/)
+    private static boolean notModified(HttpServletRequest request, StoredFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.startsWith("W/")) {
+                    t = t.substring(2);
+                }
+                if (t.equals("*") || t.equals(file.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long since = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return since >= 0 && file.lastModified() / 1000 <= since / 1000;
+    }
+
+    // If-Range: the range only applies to the version the client already holds part of
+    private static boolean rangeStillValid(HttpServletRequest request, StoredFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag()); // strong comparison; weak tags never match
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && file.lastModified() / 1000 == date / 1000;
+    }
+
+    // Single "bytes=" range; null means "ignore and send the whole file" (malformed or multiple ranges)
+    private static ByteRange parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (spec.indexOf(',') >= 0 || dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last); // "bytes=-500": the final 500 bytes
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                long n = Math.min(suffix, length);
+                return new ByteRange(length - n, n);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            end = Math.min(end, length - 1);
+            return new ByteRange(start, end - start + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.example.java_backend.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.java_backend.config.JwtAuthenticationFilter;
 import com.example.java_backend.dto.admin.AnnouncementDTO;
+import com.example.java_backend.dto.admin.AnnouncementPageDTO;
+import com.example.java_backend.service.AnnouncementReadBuffer;
 import com.example.java_backend.service.AnnouncementService;
+import com.example.java_backend.service.AnnouncementStreamService;
+import com.example.java_backend.service.JwtService.JwtPrincipal;
 
 
 
@@ -19,14 +32,92 @@ import com.example.java_backend.service.AnnouncementService;
 public class UserAnnouncementController {
 
     private final AnnouncementService announcementService;
+    private final AnnouncementReadBuffer readBuffer;
+    private final AnnouncementStreamService streamService;
 
-    public UserAnnouncementController(AnnouncementService announcementService) {
+    public UserAnnouncementController(AnnouncementService announcementService,
+                                      AnnouncementReadBuffer readBuffer,
+                                      AnnouncementStreamService streamService) {
         this.announcementService = announcementService;
+        this.readBuffer = readBuffer;
+        this.streamService = streamService;
     }
 
-    // Fetch announcements for a specific user
+    // Fetch announcements for a specific user. The web client still calls this without a
+    // token, so only a token belonging to someone else is refused here.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<AnnouncementDTO>> getForUser(@PathVariable Long userId) {
+    public ResponseEntity<List<AnnouncementDTO>> getForUser(
+            @PathVariable Long userId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        if (principal != null) {
+            requireCaller(principal, userId);
+        }
         return ResponseEntity.ok(announcementService.getAnnouncementsForUser(userId));
     }
+
+    // Unread badge count (maintained counter; reads are applied within one buffer flush)
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<Map<String, Integer>> unreadCount(
+            @PathVariable Long userId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        requireCaller(principal, userId);
+        return ResponseEntity.ok(Map.of("unreadCount", announcementService.getUnreadCount(userId)));
+    }
+
+    // Cursor-paginated inbox, newest first (?status=UNREAD&limit=20&cursor=...)
+    @GetMapping("/user/{userId}/inbox")
+    public ResponseEntity<?> getInbox(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        requireCaller(principal, userId);
+        try {
+            AnnouncementPageDTO page = announcementService.getInboxPage(userId, status, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Push channel: an "announcement" event is sent whenever a new one targets this user
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @PathVariable Long userId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        requireCaller(principal, userId);
+        return streamService.subscribe(userId);
+    }
+
+    // Mark one announcement as read (applied asynchronously by the read buffer)
+    @PostMapping("/user/{userId}/{announcementId}/read")
+    public ResponseEntity<Void> markRead(
+            @PathVariable Long userId,
+            @PathVariable Long announcementId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        requireCaller(principal, userId);
+        readBuffer.markRead(userId, announcementId);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Mark every announcement of the user as read
+    @PostMapping("/user/{userId}/read-all")
+    public ResponseEntity<Void> markAllRead(
+            @PathVariable Long userId,
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        requireCaller(principal, userId);
+        readBuffer.markAllRead(userId);
+        return ResponseEntity.accepted().build();
+    }
+
+    // The path's user must be the verified token's user: 401 without a token, 403 for anyone else
+    private static void requireCaller(JwtPrincipal principal, Long userId) {
+        if (principal == null || principal.userId() == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to read announcements");
+        }
+        if (!principal.userId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not your announcements");
+        }
+    }
 }
@@ -1,18 +1,22 @@
 package com.example.java_backend.controller;
 
 import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.java_backend.dto.user.UpdateUserDTO;
+import com.example.java_backend.config.JwtAuthenticationFilter;
 import com.example.java_backend.dto.user.UserDTO;
+import com.example.java_backend.service.JwtService.JwtPrincipal;
 import com.example.java_backend.service.UserService;
 
 
@@ -44,10 +48,19 @@ public class UserController {
     }
 
 	 // ✅ New endpoint: fetch current logged-in user
+    // Identity comes only from the verified bearer token (primary-key lookup)
     @GetMapping("/me")
-    public ResponseEntity<UserDTO> getCurrentUser(@RequestHeader("X-User-Email") String email) {
-        return userService.getUserByEmail(email)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<UserDTO> getCurrentUser(
+            @RequestAttribute(name = JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        Optional<UserDTO> user;
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        } else if (principal.userId() != null) {
+            user = userService.getUserById(principal.userId());
+        } else {
+            user = userService.getUserByEmail(principal.email());
+        }
+        return user.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -1,5 +1,9 @@
 package com.example.java_backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +17,8 @@ import com.example.java_backend.dto.course.UserSelectedCourseRequest;
 import com.example.java_backend.model.UserSelectedCourse;
 import com.example.java_backend.service.UserSelectedCourseService;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/user-selected-courses")
 //@CrossOrigin(origins = "*")
@@ -62,4 +68,21 @@ public ResponseEntity<?> updateCertificateUrl(
     }
 }
 
+    // Certificate file (PDF/PNG/JPEG) as the raw request body; stored by content hash and
+    // linked to the enrollment. Not multipart: the body streams straight into storage
+    // instead of being spooled to a temp file by the container and copied from there.
+    @PostMapping(value = "/{enrollmentId}/certificate", consumes = {
+            MediaType.APPLICATION_PDF_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    public ResponseEntity<?> uploadCertificate(@PathVariable Long enrollmentId,
+                                               HttpServletRequest request) throws IOException {
+        try (InputStream content = request.getInputStream()) {
+            UserSelectedCourse updated = userSelectedCourseService.uploadCertificate(
+                    enrollmentId, content, request.getContentLengthLong());
+            return ResponseEntity.ok(updated);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
 }
@@ -12,6 +12,11 @@ public class AnnouncementDTO {
     private String targetType; // ALL | USERS | BATCH
     private String batchId;    // nullable
     private int recipientCount;
+    private int readCount;
+    private int unreadCount;
+    private String readStatus; // UNREAD | READ for the requesting user (inbox views only)
+    private Long deliveryJobId;    // set on create when recipients are delivered in the background
+    private String deliveryStatus; // PENDING | RUNNING | COMPLETED | FAILED
 
     // getters & setters
     public Long getId() { return id; }
@@ -40,4 +45,19 @@ public class AnnouncementDTO {
 
     public int getRecipientCount() { return recipientCount; }
     public void setRecipientCount(int recipientCount) { this.recipientCount = recipientCount; }
+
+    public int getReadCount() { return readCount; }
+    public void setReadCount(int readCount) { this.readCount = readCount; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+
+    public String getReadStatus() { return readStatus; }
+    public void setReadStatus(String readStatus) { this.readStatus = readStatus; }
+
+    public Long getDeliveryJobId() { return deliveryJobId; }
+    public void setDeliveryJobId(Long deliveryJobId) { this.deliveryJobId = deliveryJobId; }
+
+    public String getDeliveryStatus() { return deliveryStatus; }
+    public void setDeliveryStatus(String deliveryStatus) { this.deliveryStatus = deliveryStatus; }
 }
@@ -0,0 +1,24 @@
+package com.example.java_backend.dto.admin;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Progress of a background recipient fan-out
+@Getter
+@Setter
+public class AnnouncementDeliveryJobDTO {
+    private Long jobId;
+    private Long announcementId;
+    private String status;        // PENDING | RUNNING | COMPLETED | FAILED
+    private long targetCount;     // audience size counted when the job starts
+    private long deliveredCount;  // recipient rows committed so far
+    private double progress;      // 0..1
+    private double rowsPerSecond; // average since the job started
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.java_backend.dto.admin;
+
+import java.util.List;
+
+public class AnnouncementPageDTO {
+    private List<AnnouncementDTO> items;
+    private String nextCursor; // null when there are no more pages
+
+    public AnnouncementPageDTO(List<AnnouncementDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // getters & setters
+    public List<AnnouncementDTO> getItems() { return items; }
+    public void setItems(List<AnnouncementDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,25 @@
+package com.example.java_backend.dto.admin;
+
+import com.example.java_backend.model.AnnouncementRecipient;
+
+import lombok.Getter;
+
+// Constructor projection for recipient listings/exports (no entities are loaded)
+@Getter
+public class AnnouncementRecipientRow {
+    private final Long userId;
+    private final String fullName;
+    private final String email;
+    private final String batchId;
+    private final AnnouncementRecipient.Status status;
+
+    public AnnouncementRecipientRow(Long userId, String fullName, String email, String batchId,
+                                    AnnouncementRecipient.Status status) {
+        this.userId = userId;
+        this.fullName = fullName;
+        this.email = email;
+        this.batchId = batchId;
+        // virtual audiences have no row until the user reads it
+        this.status = status != null ? status : AnnouncementRecipient.Status.UNREAD;
+    }
+}
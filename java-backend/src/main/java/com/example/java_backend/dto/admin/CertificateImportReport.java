@@ -0,0 +1,50 @@
+package com.example.java_backend.dto.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+// Outcome of a zip certificate import, one entry per file in the archive
+@Getter
+public class CertificateImportReport {
+
+    public enum Status { STORED, ERROR }
+
+    private int total;
+    private int stored;
+    private int failed;
+    private final List<Row> rows = new ArrayList<>();
+
+    public void stored(String entry, String student, Long enrollmentId, String certificateUrl) {
+        rows.add(new Row(entry, student, Status.STORED, enrollmentId, certificateUrl, null));
+        total++;
+        stored++;
+    }
+
+    public void failed(String entry, String student, String error) {
+        rows.add(new Row(entry, student, Status.ERROR, null, null, error));
+        total++;
+        failed++;
+    }
+
+    @Getter
+    public static class Row {
+        private final String entry;
+        private final String student;
+        private final Status status;
+        private final Long enrollmentId;
+        private final String certificateUrl;
+        private final String error;
+
+        public Row(String entry, String student, Status status, Long enrollmentId,
+                   String certificateUrl, String error) {
+            this.entry = entry;
+            this.student = student;
+            this.status = status;
+            this.enrollmentId = enrollmentId;
+            this.certificateUrl = certificateUrl;
+            this.error = error;
+        }
+    }
+}
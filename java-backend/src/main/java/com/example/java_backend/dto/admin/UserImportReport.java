@@ -0,0 +1,47 @@
+package com.example.java_backend.dto.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+// Outcome of a CSV user import, one entry per data row (line numbers are 1-based, header = 1)
+@Getter
+public class UserImportReport {
+
+    public enum Status { CREATED, ERROR }
+
+    private int total;
+    private int created;
+    private int failed;
+    private final List<Row> rows = new ArrayList<>();
+
+    public void created(long line, String email, Long userId) {
+        rows.add(new Row(line, email, Status.CREATED, userId, null));
+        total++;
+        created++;
+    }
+
+    public void failed(long line, String email, String error) {
+        rows.add(new Row(line, email, Status.ERROR, null, error));
+        total++;
+        failed++;
+    }
+
+    @Getter
+    public static class Row {
+        private final long line;
+        private final String email;
+        private final Status status;
+        private final Long userId;
+        private final String error;
+
+        public Row(long line, String email, Status status, Long userId, String error) {
+            this.line = line;
+            this.email = email;
+            this.status = status;
+            this.userId = userId;
+            this.error = error;
+        }
+    }
+}
@@ -11,4 +11,9 @@ public class AuthResponse {
     private final String fullName;
     private final String email;
     private final String role;  // ✅ Add this
+    private final String refreshToken;
+
+    public AuthResponse(String token, long id, String fullName, String email, String role) {
+        this(token, id, fullName, email, role, null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.java_backend.dto.course;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One keyset page of courses; each item holds only the requested fields
+@Getter
+@AllArgsConstructor
+public class CoursePageDTO {
+    private List<Map<String, Object>> items;
+    private String nextCursor; // null when there are no more pages
+}
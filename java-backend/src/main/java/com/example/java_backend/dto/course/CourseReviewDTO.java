@@ -0,0 +1,20 @@
+package com.example.java_backend.dto.course;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Also used as a JPQL constructor projection (review joined with the author's name)
+@Getter
+@AllArgsConstructor
+public class CourseReviewDTO {
+    private Long id;
+    private Long courseId;
+    private Long userId;
+    private String userFullName;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
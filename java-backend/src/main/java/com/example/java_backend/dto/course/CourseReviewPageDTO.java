@@ -0,0 +1,13 @@
+package com.example.java_backend.dto.course;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CourseReviewPageDTO {
+    private List<CourseReviewDTO> items;
+    private String nextCursor; // null when there are no more pages
+}
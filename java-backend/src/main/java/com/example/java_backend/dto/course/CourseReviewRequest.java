@@ -0,0 +1,11 @@
+package com.example.java_backend.dto.course;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CourseReviewRequest {
+    private Integer rating; // 1..5
+    private String comment;
+}
@@ -0,0 +1,18 @@
+package com.example.java_backend.dto.course;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// One page of course search hits, with counts per facet value over all hits
+@Getter
+@AllArgsConstructor
+public class CourseSearchResult {
+    private List<CourseDTO> items;
+    private int total;
+    private int page;
+    private int size;
+    private Map<String, Map<String, Integer>> facets; // "level"/"mode" -> value -> hits
+}
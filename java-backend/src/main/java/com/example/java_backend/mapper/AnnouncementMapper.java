@@ -5,7 +5,7 @@ import com.example.java_backend.model.Announcement;
 
 public class AnnouncementMapper {
 
-    public static AnnouncementDTO toDTO(Announcement a, int recipientCount) {
+    public static AnnouncementDTO toDTO(Announcement a, int recipientCount, int readCount) {
         AnnouncementDTO dto = new AnnouncementDTO();
         dto.setId(a.getId());
         dto.setTitle(a.getTitle());
@@ -16,6 +16,8 @@ public class AnnouncementMapper {
         dto.setTargetType(a.getTargetType() != null ? a.getTargetType().name() : null);
         dto.setBatchId(a.getBatchId());
         dto.setRecipientCount(recipientCount);
+        dto.setReadCount(readCount);
+        dto.setUnreadCount(recipientCount - readCount);
         return dto;
     }
 }
@@ -1,10 +1,7 @@
 package com.example.java_backend.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -13,9 +10,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 
 /*
 @Entity
@@ -69,6 +67,13 @@ public class Announcement {
 */
 
 @Entity
+@Table(indexes = {
+        // retention sweep (createdAt < cutoff)
+        @Index(name = "idx_announcement_created_id", columnList = "createdAt, id"),
+        // inbox share of virtual audiences: one keyset range per audience (ALL, or one batch)
+        @Index(name = "idx_announcement_audience_created",
+                columnList = "virtualAudience, targetType, batchId, createdAt, id")
+})
 public class Announcement {
 
     public enum TargetType { ALL, USERS, BATCH }
@@ -93,9 +98,16 @@ public class Announcement {
 
     private String batchId;
 
-    // ✅ NEW: Link to recipients
-    @OneToMany(mappedBy = "announcement", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<AnnouncementRecipient> recipients = new ArrayList<>();
+    // Audience-expression mode: ALL/BATCH membership is resolved at read time
+    // instead of materializing one recipient row per user. Recipient rows then
+    // only hold per-user state (READ) and are written sparsely.
+    private boolean virtualAudience;
+
+    // users with id <= this value existed when the announcement was created
+    private Long audienceMaxUserId;
+
+    // audience size resolved at creation (virtual announcements only)
+    private Integer audienceSize;
 
     // getters & setters
     public Long getId() { return id; }
@@ -119,6 +131,12 @@ public class Announcement {
     public String getBatchId() { return batchId; }
     public void setBatchId(String batchId) { this.batchId = batchId; }
 
-    public List<AnnouncementRecipient> getRecipients() { return recipients; }
-    public void setRecipients(List<AnnouncementRecipient> recipients) { this.recipients = recipients; }
+    public boolean isVirtualAudience() { return virtualAudience; }
+    public void setVirtualAudience(boolean virtualAudience) { this.virtualAudience = virtualAudience; }
+
+    public Long getAudienceMaxUserId() { return audienceMaxUserId; }
+    public void setAudienceMaxUserId(Long audienceMaxUserId) { this.audienceMaxUserId = audienceMaxUserId; }
+
+    public Integer getAudienceSize() { return audienceSize; }
+    public void setAudienceSize(Integer audienceSize) { this.audienceSize = audienceSize; }
 }
@@ -0,0 +1,78 @@
+package com.example.java_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Cold copy of an announcement moved out by the retention job (same id as the original)
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_announcement_archive_created", columnList = "createdAt")
+})
+public class AnnouncementArchive {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    private LocalDateTime createdAt;
+
+    private Long createdById;
+
+    @Enumerated(EnumType.STRING)
+    private Announcement.TargetType targetType;
+
+    private String batchId;
+
+    private boolean virtualAudience;
+
+    private Long audienceMaxUserId;
+
+    private Integer audienceSize;
+
+    private LocalDateTime archivedAt;
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getCreatedById() { return createdById; }
+    public void setCreatedById(Long createdById) { this.createdById = createdById; }
+
+    public Announcement.TargetType getTargetType() { return targetType; }
+    public void setTargetType(Announcement.TargetType targetType) { this.targetType = targetType; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public boolean isVirtualAudience() { return virtualAudience; }
+    public void setVirtualAudience(boolean virtualAudience) { this.virtualAudience = virtualAudience; }
+
+    public Long getAudienceMaxUserId() { return audienceMaxUserId; }
+    public void setAudienceMaxUserId(Long audienceMaxUserId) { this.audienceMaxUserId = audienceMaxUserId; }
+
+    public Integer getAudienceSize() { return audienceSize; }
+    public void setAudienceSize(Integer audienceSize) { this.audienceSize = audienceSize; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,100 @@
+package com.example.java_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Background fan-out of one announcement into recipient rows. The audience is walked
+// in user-id order; lastUserId is committed together with each chunk, so a restarted
+// job resumes exactly after the last chunk that made it to the database.
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_delivery_job_status", columnList = "status"),
+        @Index(name = "idx_delivery_job_announcement", columnList = "announcementId")
+})
+public class AnnouncementDeliveryJob {
+
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // plain id (no FK) so deleting the announcement never blocks on a running job
+    @Column(nullable = false)
+    private Long announcementId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    // audience snapshot: users with id <= maxUserId (and in batchId, if set)
+    private Long maxUserId;
+    private String batchId;
+
+    // resume point: every audience member with id <= lastUserId has a row
+    private long lastUserId;
+
+    private long targetCount;
+    private long deliveredCount;
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAnnouncementId() { return announcementId; }
+    public void setAnnouncementId(Long announcementId) { this.announcementId = announcementId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getMaxUserId() { return maxUserId; }
+    public void setMaxUserId(Long maxUserId) { this.maxUserId = maxUserId; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public long getLastUserId() { return lastUserId; }
+    public void setLastUserId(long lastUserId) { this.lastUserId = lastUserId; }
+
+    public long getTargetCount() { return targetCount; }
+    public void setTargetCount(long targetCount) { this.targetCount = targetCount; }
+
+    public long getDeliveredCount() { return deliveredCount; }
+    public void setDeliveredCount(long deliveredCount) { this.deliveredCount = deliveredCount; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -1,5 +1,7 @@
 package com.example.java_backend.model;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -7,10 +9,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = {
+        // one state row per (announcement, user); virtual audiences insert READ rows lazily
+        @UniqueConstraint(name = "uk_recipient_announcement_user", columnNames = {"announcement_id", "user_id"})
+}, indexes = {
+        // covers the grouped total/READ/UNREAD counts per announcement
+        @Index(name = "idx_recipient_announcement_status", columnList = "announcement_id, status"),
+        // a user's inbox in keyset order: newest first is one backwards range scan
+        @Index(name = "idx_recipient_user_created", columnList = "user_id, createdAt, announcement_id"),
+        // the same per status (UNREAD/READ inbox filters); its (user_id, status) prefix also
+        // serves the per-user status lookups (badge rebuild, read-all)
+        @Index(name = "idx_recipient_user_status_created", columnList = "user_id, status, createdAt, announcement_id")
+})
 public class AnnouncementRecipient {
 
     public enum Status { UNREAD, READ } // keep for later
@@ -30,6 +47,9 @@ public class AnnouncementRecipient {
     @Enumerated(EnumType.STRING)
     private Status status = Status.UNREAD; // default
 
+    // copy of the announcement's createdAt, so inbox pages never join announcements to sort
+    private LocalDateTime createdAt;
+
     // getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -42,4 +62,7 @@ public class AnnouncementRecipient {
 
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
@@ -0,0 +1,40 @@
+package com.example.java_backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// Cold copy of a recipient row; plain ids, no FKs, so archived data never blocks user changes
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_recipient_archive_announcement", columnList = "announcementId"),
+        @Index(name = "idx_recipient_archive_user", columnList = "userId")
+})
+public class AnnouncementRecipientArchive {
+
+    @Id
+    private Long id;
+
+    private Long announcementId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private AnnouncementRecipient.Status status;
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAnnouncementId() { return announcementId; }
+    public void setAnnouncementId(Long announcementId) { this.announcementId = announcementId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public AnnouncementRecipient.Status getStatus() { return status; }
+    public void setStatus(AnnouncementRecipient.Status status) { this.status = status; }
+}
@@ -1,15 +1,23 @@
 package com.example.java_backend.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
 @Getter
 @Setter
+@Table(indexes = {
+        // keyset pages sorted by rating / participants (CourseQueryService scans them backwards)
+        @Index(name = "idx_course_rating_id", columnList = "rating, id"),
+        @Index(name = "idx_course_participants_id", columnList = "totalParticipants, id")
+})
 public class Course {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,13 +27,26 @@ public class Course {
     private String description;
     private String image;
     private String mode;  // Online / Physical / Both
+    // average and count of CourseReviews; maintained by CourseReviewService through one
+    // atomic UPDATE per review (ratingSum is the running total), never written by saves
+    @Column(updatable = false)
     private double rating;
+    @Column(updatable = false)
     private int reviews;
+    @Column(updatable = false)
+    private Double ratingSum; // NULL on courses created before reviews: seeded from rating * reviews
     private String price;
     private String level; // Beginner / Intermediate / Advanced
 
     // 🔹 New Fields
-    private int totalParticipants;       // total number of enrolled participants
+    // total number of enrolled participants; maintained by CourseEnrollmentCounter through
+    // bulk updates only, so saving a loaded course never writes back a stale count
+    @Column(updatable = false)
+    private int totalParticipants;
+    // bumped by every full recount; buffered deltas from transactions that read an older
+    // value were already included in that recount and are dropped instead of flushed
+    @Column(updatable = false)
+    private int participantsEpoch;
     private String certificateProviders; // e.g., "MIT, Harvard"
     private String promoCode;            // optional promo code
     private String demoCertificate;      // URL to demo certificate (image/pdf)
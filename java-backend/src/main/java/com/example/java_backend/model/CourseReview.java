@@ -0,0 +1,41 @@
+package com.example.java_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+// One review per enrolled student and course; resubmitting replaces the rating
+@Entity
+@Getter
+@Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_course_review_course_user", columnNames = {"courseId", "userId"}),
+       indexes = @Index(name = "idx_course_review_course_id", columnList = "courseId, id"))
+public class CourseReview {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long courseId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private int rating; // 1..5
+
+    @Column(columnDefinition = "TEXT")
+    private String comment;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
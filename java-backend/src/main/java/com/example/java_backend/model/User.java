@@ -1,12 +1,14 @@
 package com.example.java_backend.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,7 +16,12 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // read counts of virtual announcements: members whose read-all covers the announcement
+        @Index(name = "idx_users_announcements_read_before", columnList = "announcementsReadBefore"),
+        // batch audiences: existence probe on create, lazy size count, delivery slices
+        @Index(name = "idx_users_batch_id", columnList = "batchId, id")
+})
 public class User {
     @Id 
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,7 +36,7 @@ public class User {
 
     // New verification-related fields
     private boolean isVerified = false;
-    private String verificationToken;
+    private String verificationToken; // legacy plain-text token, see EmailVerificationService
 
     // New fields
     private String hometown;
@@ -48,4 +55,15 @@ public class User {
 
      private String studentId;
      private String batchId;
+
+    // Maintained unread-announcement badge count; NULL = unknown, rebuilt on next read.
+    // Written only by AnnouncementUnreadCounter's bulk updates, so saving a loaded user
+    // never writes back a stale count over concurrent +1/-n updates
+    @Column(insertable = false, updatable = false)
+    private Integer unreadAnnouncements;
+
+    // Read-all watermark: virtual-audience announcements created at or before this are read.
+    // Moved forward only by AnnouncementReadBuffer's bulk update, like the counter above
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime announcementsReadBefore;
 }
@@ -0,0 +1,31 @@
+package com.example.java_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.java_backend.model.AnnouncementArchive;
+
+// Set-based copies into the archive tables (the hot rows are deleted by the caller)
+public interface AnnouncementArchiveRepository extends JpaRepository<AnnouncementArchive, Long> {
+
+    // Returns 0 when the announcement was already copied (resumed run)
+    @Modifying
+    @Query(value = "INSERT INTO announcement_archive (id, title, message, created_at, created_by_id, target_type, "
+            + "batch_id, virtual_audience, audience_max_user_id, audience_size, archived_at) "
+            + "SELECT a.id, a.title, a.message, a.created_at, a.created_by_id, a.target_type, "
+            + "a.batch_id, a.virtual_audience, a.audience_max_user_id, a.audience_size, :archivedAt "
+            + "FROM announcement a WHERE a.id = :announcementId "
+            + "AND NOT EXISTS (SELECT 1 FROM announcement_archive x WHERE x.id = a.id)", nativeQuery = true)
+    int copyAnnouncement(@Param("announcementId") Long announcementId, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO announcement_recipient_archive (id, announcement_id, user_id, status) "
+            + "SELECT r.id, r.announcement_id, r.user_id, r.status FROM announcement_recipient r "
+            + "WHERE r.id IN (:ids)", nativeQuery = true)
+    int copyRecipients(@Param("ids") Collection<Long> ids);
+}
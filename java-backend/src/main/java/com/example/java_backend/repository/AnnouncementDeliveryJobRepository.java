@@ -0,0 +1,26 @@
+package com.example.java_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.java_backend.model.AnnouncementDeliveryJob;
+
+public interface AnnouncementDeliveryJobRepository extends JpaRepository<AnnouncementDeliveryJob, Long> {
+
+    @Query("SELECT j.id FROM AnnouncementDeliveryJob j WHERE j.status IN :statuses ORDER BY j.id")
+    List<Long> findIdsByStatusIn(@Param("statuses") Collection<AnnouncementDeliveryJob.Status> statuses);
+
+    Optional<AnnouncementDeliveryJob> findFirstByAnnouncementIdOrderByIdDesc(Long announcementId);
+
+    List<AnnouncementDeliveryJob> findByAnnouncementIdIn(Collection<Long> announcementIds);
+
+    @Modifying
+    @Query("DELETE FROM AnnouncementDeliveryJob j WHERE j.announcementId = :announcementId")
+    int deleteByAnnouncementId(@Param("announcementId") Long announcementId);
+}
@@ -1,9 +1,16 @@
 package com.example.java_backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.java_backend.dto.admin.AnnouncementRecipientRow;
 import com.example.java_backend.model.Announcement;
 import com.example.java_backend.model.AnnouncementRecipient;
 import com.example.java_backend.model.User;
@@ -12,4 +19,133 @@ public interface AnnouncementRecipientRepository extends JpaRepository<Announcem
     List<AnnouncementRecipient> findByAnnouncement(Announcement announcement);
 	List<AnnouncementRecipient> findByUser(User user);
 
+    // Badge column rebuild: materialized rows only (virtual audiences never have UNREAD rows)
+    @Query("SELECT COUNT(r) FROM AnnouncementRecipient r WHERE r.user.id = :userId AND r.status = :status")
+    long countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") AnnouncementRecipient.Status status);
+
+    // Per-announcement totals, computed by the database in one grouped query
+    interface StatusCounts {
+        Long getAnnouncementId();
+        long getTotal();
+        long getReadCount();
+    }
+
+    @Query("SELECT r.announcement.id AS announcementId, COUNT(r) AS total, "
+            + "SUM(CASE WHEN r.status = :read THEN 1 ELSE 0 END) AS readCount "
+            + "FROM AnnouncementRecipient r WHERE r.announcement.id IN :announcementIds "
+            + "GROUP BY r.announcement.id")
+    List<StatusCounts> countByAnnouncementIds(@Param("announcementIds") Collection<Long> announcementIds,
+                                              @Param("read") AnnouncementRecipient.Status read);
+
+    // Unread rows for a set of users/announcements, used to resolve buffered read receipts to row ids
+    interface RecipientKey {
+        Long getId();
+        Long getUserId();
+        Long getAnnouncementId();
+    }
+
+    @Query("SELECT r.id AS id, r.user.id AS userId, r.announcement.id AS announcementId "
+            + "FROM AnnouncementRecipient r WHERE r.status = :status "
+            + "AND r.user.id IN :userIds AND r.announcement.id IN :announcementIds")
+    List<RecipientKey> findKeys(@Param("userIds") Collection<Long> userIds,
+                                @Param("announcementIds") Collection<Long> announcementIds,
+                                @Param("status") AnnouncementRecipient.Status status);
+
+    @Modifying
+    @Query("UPDATE AnnouncementRecipient r SET r.status = :status WHERE r.id IN :ids")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") AnnouncementRecipient.Status status);
+
+    @Modifying
+    @Query("UPDATE AnnouncementRecipient r SET r.status = :to WHERE r.user.id IN :userIds AND r.status = :from")
+    int updateStatusForUsers(@Param("userIds") Collection<Long> userIds,
+                             @Param("from") AnnouncementRecipient.Status from,
+                             @Param("to") AnnouncementRecipient.Status to);
+
+    // Keyset pages of recipients ordered by user id, projected straight into rows
+    @Query("SELECT new com.example.java_backend.dto.admin.AnnouncementRecipientRow("
+            + "u.id, u.fullName, u.email, u.batchId, r.status) "
+            + "FROM AnnouncementRecipient r JOIN r.user u "
+            + "WHERE r.announcement.id = :announcementId AND u.id > :afterUserId ORDER BY u.id")
+    List<AnnouncementRecipientRow> findRecipientRows(@Param("announcementId") Long announcementId,
+                                                     @Param("afterUserId") Long afterUserId,
+                                                     Pageable pageable);
+
+    // Same for virtual audiences: members come from users, state from the sparse rows
+    // or the member's read-all watermark
+    @Query("SELECT new com.example.java_backend.dto.admin.AnnouncementRecipientRow("
+            + "u.id, u.fullName, u.email, u.batchId, "
+            + "CASE WHEN r.id IS NULL AND u.announcementsReadBefore >= :createdAt "
+            + "     THEN com.example.java_backend.model.AnnouncementRecipient.Status.READ ELSE r.status END) "
+            + "FROM User u LEFT JOIN AnnouncementRecipient r ON r.user = u AND r.announcement.id = :announcementId "
+            + "WHERE u.id <= :maxUserId AND (:batchId IS NULL OR u.batchId = :batchId) "
+            + "AND u.id > :afterUserId ORDER BY u.id")
+    List<AnnouncementRecipientRow> findAudienceRows(@Param("announcementId") Long announcementId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("maxUserId") Long maxUserId,
+                                                    @Param("batchId") String batchId,
+                                                    @Param("afterUserId") Long afterUserId,
+                                                    Pageable pageable);
+
+    // The caller's own state rows for a page of announcements
+    interface UserStatus {
+        Long getAnnouncementId();
+        AnnouncementRecipient.Status getStatus();
+    }
+
+    @Query("SELECT r.announcement.id AS announcementId, r.status AS status FROM AnnouncementRecipient r "
+            + "WHERE r.user.id = :userId AND r.announcement.id IN :announcementIds")
+    List<UserStatus> findStatuses(@Param("userId") Long userId,
+                                  @Param("announcementIds") Collection<Long> announcementIds);
+
+    // Sparse READ rows for virtual audiences: only pairs whose user is in the
+    // announcement's audience, not yet covered by the user's read-all watermark and
+    // without a row yet are inserted.
+    @Modifying
+    @Query(value = "INSERT INTO announcement_recipient (announcement_id, user_id, status, created_at) "
+            + "SELECT a.id, u.id, 'READ', a.created_at FROM announcement a JOIN users u ON u.id IN (:userIds) "
+            + "WHERE a.id = :announcementId AND a.virtual_audience = TRUE AND u.id <= a.audience_max_user_id "
+            + "AND (a.target_type = 'ALL' OR a.batch_id = u.batch_id) "
+            + "AND (u.announcements_read_before IS NULL OR u.announcements_read_before < a.created_at) "
+            + "AND NOT EXISTS (SELECT 1 FROM announcement_recipient r "
+            + "                WHERE r.announcement_id = a.id AND r.user_id = u.id)", nativeQuery = true)
+    int insertVirtualReads(@Param("announcementId") Long announcementId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT r.user.id FROM AnnouncementRecipient r "
+            + "WHERE r.announcement.id = :announcementId AND r.user.id IN :userIds")
+    List<Long> findUserIdsWithRow(@Param("announcementId") Long announcementId,
+                                  @Param("userIds") Collection<Long> userIds);
+
+    // Bulk deletes: no entities are loaded, one statement per call
+    @Modifying
+    @Query("DELETE FROM AnnouncementRecipient r WHERE r.announcement.id = :announcementId")
+    int deleteByAnnouncementId(@Param("announcementId") Long announcementId);
+
+    @Modifying
+    @Query("DELETE FROM AnnouncementRecipient r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id FROM AnnouncementRecipient r WHERE r.announcement.id = :announcementId ORDER BY r.id")
+    List<Long> findIdsByAnnouncementId(@Param("announcementId") Long announcementId, Pageable pageable);
+
+    @Query("SELECT r.user.id FROM AnnouncementRecipient r WHERE r.id IN :ids AND r.status = :status")
+    List<Long> findUserIdsByIdsAndStatus(@Param("ids") Collection<Long> ids,
+                                         @Param("status") AnnouncementRecipient.Status status);
+
+    // Set-based fan-out: recipient rows are produced inside the database,
+    // so no User entity is loaded. Returns the inserted row count.
+    @Modifying
+    @Query(value = "INSERT INTO announcement_recipient (announcement_id, user_id, status, created_at) "
+            + "SELECT a.id, u.id, 'UNREAD', a.created_at FROM announcement a JOIN users u ON u.id IN (:userIds) "
+            + "WHERE a.id = :announcementId", nativeQuery = true)
+    int insertForUsers(@Param("announcementId") Long announcementId, @Param("userIds") Collection<Long> userIds);
+
+    // Rows written before recipient rows carried the announcement's createdAt (filled once)
+    @Query("SELECT r.id FROM AnnouncementRecipient r WHERE r.createdAt IS NULL AND r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsWithoutCreatedAt(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE announcement_recipient SET created_at = (SELECT a.created_at FROM announcement a "
+            + "WHERE a.id = announcement_recipient.announcement_id) WHERE id IN (:ids)", nativeQuery = true)
+    int copyCreatedAt(@Param("ids") Collection<Long> ids);
+
 }
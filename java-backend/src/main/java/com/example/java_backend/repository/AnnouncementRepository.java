@@ -1,8 +1,137 @@
 package com.example.java_backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementRecipient;
 
 public interface AnnouncementRepository extends JpaRepository<Announcement, Long> {
+
+    @Query("SELECT a.id FROM Announcement a WHERE a.createdAt < :cutoff ORDER BY a.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Announcement a WHERE a.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    // Hides a virtual audience from every inbox (membership is id <= audienceMaxUserId)
+    @Modifying
+    @Query("UPDATE Announcement a SET a.audienceMaxUserId = 0 WHERE a.id = :id")
+    int clearAudience(@Param("id") Long id);
+
+    // Creator is rendered in every listing row, so fetch it with the announcements
+    @Override
+    @EntityGraph(attributePaths = "createdBy")
+    List<Announcement> findAll();
+
+    // ---- inbox: keyset pages, newest first, (createdAt, id) < cursor ----
+    // The first page passes a cursor past every row, so each query is one index range
+    // read backwards for limit rows. AnnouncementService merges the three sources.
+
+    // Announcements the user has a recipient row for (idx_recipient_user_created)
+    @Query("SELECT a FROM AnnouncementRecipient r JOIN r.announcement a LEFT JOIN FETCH a.createdBy "
+            + "WHERE r.user.id = :userId "
+            + "AND (r.createdAt, r.announcement.id) < (:cursorCreatedAt, :cursorId) "
+            + "ORDER BY r.createdAt DESC, r.announcement.id DESC")
+    List<Announcement> findRecipientInboxPage(@Param("userId") Long userId,
+                                              @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    // Same, only rows in one state (idx_recipient_user_status_created)
+    @Query("SELECT a FROM AnnouncementRecipient r JOIN r.announcement a LEFT JOIN FETCH a.createdBy "
+            + "WHERE r.user.id = :userId AND r.status = :status "
+            + "AND (r.createdAt, r.announcement.id) < (:cursorCreatedAt, :cursorId) "
+            + "ORDER BY r.createdAt DESC, r.announcement.id DESC")
+    List<Announcement> findRecipientInboxPageByStatus(@Param("userId") Long userId,
+                                                      @Param("status") AnnouncementRecipient.Status status,
+                                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                      @Param("cursorId") Long cursorId,
+                                                      Pageable pageable);
+
+    // Virtual audiences have no row per member: an announcement is read if the user's
+    // read-all watermark covers it or it has a sparse READ row (probed on the recipient
+    // unique key). createdAfter is the lower end of the range: the watermark for onlyUnread.
+    String VIRTUAL_STATUS_FILTER = "AND a.createdAt > :createdAfter "
+            + "AND (:onlyRead = false OR a.createdAt <= :readBefore OR EXISTS (SELECT 1 FROM AnnouncementRecipient r "
+            + "     WHERE r.announcement = a AND r.user.id = :userId "
+            + "     AND r.status = com.example.java_backend.model.AnnouncementRecipient.Status.READ)) "
+            + "AND (:onlyUnread = false OR NOT EXISTS (SELECT 1 FROM AnnouncementRecipient r "
+            + "     WHERE r.announcement = a AND r.user.id = :userId "
+            + "     AND r.status = com.example.java_backend.model.AnnouncementRecipient.Status.READ)) ";
+
+    // ALL audiences (idx_announcement_audience_created, batchId IS NULL). Users newer than an
+    // announcement's audience snapshot are filtered out, so the last page of a new user can
+    // walk the older index entries of the audience; every other page stops after limit rows.
+    @Query("SELECT a FROM Announcement a LEFT JOIN FETCH a.createdBy "
+            + "WHERE a.virtualAudience = true "
+            + "AND a.targetType = com.example.java_backend.model.Announcement.TargetType.ALL AND a.batchId IS NULL "
+            + "AND (a.createdAt, a.id) < (:cursorCreatedAt, :cursorId) "
+            + "AND a.audienceMaxUserId >= :userId "
+            + VIRTUAL_STATUS_FILTER
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Announcement> findAllAudienceInboxPage(@Param("userId") Long userId,
+                                                @Param("onlyUnread") boolean onlyUnread,
+                                                @Param("onlyRead") boolean onlyRead,
+                                                @Param("readBefore") LocalDateTime readBefore,
+                                                @Param("createdAfter") LocalDateTime createdAfter,
+                                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    // The user's batch audience, same index with the batch as its prefix
+    @Query("SELECT a FROM Announcement a LEFT JOIN FETCH a.createdBy "
+            + "WHERE a.virtualAudience = true "
+            + "AND a.targetType = com.example.java_backend.model.Announcement.TargetType.BATCH AND a.batchId = :batchId "
+            + "AND (a.createdAt, a.id) < (:cursorCreatedAt, :cursorId) "
+            + "AND a.audienceMaxUserId >= :userId "
+            + VIRTUAL_STATUS_FILTER
+            + "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Announcement> findBatchAudienceInboxPage(@Param("userId") Long userId,
+                                                  @Param("batchId") String batchId,
+                                                  @Param("onlyUnread") boolean onlyUnread,
+                                                  @Param("onlyRead") boolean onlyRead,
+                                                  @Param("readBefore") LocalDateTime readBefore,
+                                                  @Param("createdAfter") LocalDateTime createdAfter,
+                                                  @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                  @Param("cursorId") Long cursorId,
+                                                  Pageable pageable);
+
+    // Badge share of virtual audiences: announcements the user falls under (id watermark,
+    // batch) after their read-all watermark without a READ row. Scans announcements, never users.
+    @Query("SELECT COUNT(a) FROM Announcement a "
+            + "WHERE a.virtualAudience = true AND a.audienceMaxUserId >= :userId "
+            + "AND (a.targetType = com.example.java_backend.model.Announcement.TargetType.ALL "
+            + "     OR a.batchId = :batchId) "
+            + "AND a.createdAt > :readBefore "
+            + "AND NOT EXISTS (SELECT 1 FROM AnnouncementRecipient r "
+            + "     WHERE r.announcement = a AND r.user.id = :userId "
+            + "     AND r.status = com.example.java_backend.model.AnnouncementRecipient.Status.READ)")
+    long countVirtualUnreadForUser(@Param("userId") Long userId, @Param("batchId") String batchId,
+                                   @Param("readBefore") LocalDateTime readBefore);
+
+    // Read counts of virtual announcements beyond their READ rows: audience members whose
+    // read-all watermark covers the announcement (idx_users_announcements_read_before)
+    interface WatermarkReads {
+        Long getAnnouncementId();
+        long getReadCount();
+    }
+
+    @Query("SELECT a.id AS announcementId, COUNT(u) AS readCount FROM Announcement a, User u "
+            + "WHERE a.id IN :announcementIds AND a.virtualAudience = true "
+            + "AND u.announcementsReadBefore >= a.createdAt AND u.id <= a.audienceMaxUserId "
+            + "AND (a.targetType = com.example.java_backend.model.Announcement.TargetType.ALL "
+            + "     OR u.batchId = a.batchId) "
+            + "AND NOT EXISTS (SELECT 1 FROM AnnouncementRecipient r WHERE r.announcement = a AND r.user = u) "
+            + "GROUP BY a.id")
+    List<WatermarkReads> countWatermarkReads(@Param("announcementIds") Collection<Long> announcementIds);
 }
@@ -1,8 +1,50 @@
 package com.example.java_backend.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.java_backend.model.Course;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    // Flushed enrollment deltas (CourseEnrollmentCounter); one statement per distinct delta and
+    // epoch. Courses recounted since the deltas were taken do not match and keep their count.
+    @Modifying
+    @Query("UPDATE Course c SET c.totalParticipants = c.totalParticipants + :delta "
+            + "WHERE c.id IN :ids AND c.participantsEpoch = :epoch")
+    int addParticipants(@Param("ids") Collection<Long> ids, @Param("delta") int delta, @Param("epoch") int epoch);
+
+    // Courses from before reviews existed start from their hand-entered average
+    @Modifying
+    @Query("UPDATE Course c SET c.ratingSum = c.rating * c.reviews WHERE c.id = :id AND c.ratingSum IS NULL")
+    int seedRatingSum(@Param("id") Long id);
+
+    // One review added (countDelta 1) or changed (countDelta 0). rating is assigned first and
+    // every other clause only reads its own column, so the result is the same whether SET
+    // clauses see old values (standard SQL) or earlier assignments (MySQL)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Course c SET "
+            + "c.rating = (c.ratingSum + :ratingDelta) / (c.reviews + :countDelta), "
+            + "c.ratingSum = c.ratingSum + :ratingDelta, "
+            + "c.reviews = c.reviews + :countDelta "
+            + "WHERE c.id = :id")
+    int applyReview(@Param("id") Long id, @Param("ratingDelta") double ratingDelta, @Param("countDelta") int countDelta);
+
+    // Cluster-wide named lock for the recount; both run on the caller's transaction connection
+    @Query(value = "SELECT GET_LOCK('course_participants_recount', 0)", nativeQuery = true)
+    Integer tryRecountLock();
+
+    @Query(value = "SELECT RELEASE_LOCK('course_participants_recount')", nativeQuery = true)
+    Integer releaseRecountLock();
+
+    // Recomputes every course's count from the enrollment table and starts a new epoch
+    @Modifying
+    @Query(value = "UPDATE course c SET total_participants = "
+            + "(SELECT COUNT(*) FROM user_selected_courses e WHERE e.course_id = c.id), "
+            + "participants_epoch = participants_epoch + 1", nativeQuery = true)
+    int recountParticipants();
 }
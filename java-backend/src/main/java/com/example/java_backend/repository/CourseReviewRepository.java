@@ -0,0 +1,31 @@
+package com.example.java_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.java_backend.dto.course.CourseReviewDTO;
+import com.example.java_backend.model.CourseReview;
+
+import jakarta.persistence.LockModeType;
+
+public interface CourseReviewRepository extends JpaRepository<CourseReview, Long> {
+
+    // Resubmissions lock the existing review so concurrent ones compute their delta in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM CourseReview r WHERE r.courseId = :courseId AND r.userId = :userId")
+    Optional<CourseReview> findForUpdate(@Param("courseId") Long courseId, @Param("userId") Long userId);
+
+    // Newest first; keyset on id (the cursor is the last id of the previous page)
+    @Query("SELECT new com.example.java_backend.dto.course.CourseReviewDTO("
+            + "r.id, r.courseId, r.userId, u.fullName, r.rating, r.comment, r.createdAt, r.updatedAt) "
+            + "FROM CourseReview r LEFT JOIN User u ON u.id = r.userId "
+            + "WHERE r.courseId = :courseId AND (:beforeId IS NULL OR r.id < :beforeId) "
+            + "ORDER BY r.id DESC")
+    List<CourseReviewDTO> findPage(@Param("courseId") Long courseId, @Param("beforeId") Long beforeId, Pageable pageable);
+}
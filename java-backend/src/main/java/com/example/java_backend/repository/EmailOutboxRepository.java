@@ -0,0 +1,30 @@
+package com.example.java_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.java_backend.model.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = com.example.java_backend.model.EmailOutbox.Status.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(EmailOutbox.Status status);
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = com.example.java_backend.model.EmailOutbox.Status.SENT "
+            + "AND e.sentAt < :cutoff ORDER BY e.id")
+    List<Long> findSentIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.example.java_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.java_backend.model.EmailVerificationToken;
+
+public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, Long> {
+
+    Optional<EmailVerificationToken> findByTokenHash(String tokenHash);
+
+    @Query("SELECT t.id FROM EmailVerificationToken t WHERE t.expiresAt < :now ORDER BY t.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM EmailVerificationToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
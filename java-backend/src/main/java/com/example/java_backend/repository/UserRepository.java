@@ -1,18 +1,103 @@
 package com.example.java_backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.java_backend.model.User;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
-    Optional<User> findByVerificationToken(String token);
+    // Bulk import: which of these emails are taken (one set query per chunk)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.id, u.email FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
+
+    // Plain-text tokens from before email_verification_token existed (migrated at startup)
+    @Query("SELECT u FROM User u WHERE u.verificationToken IS NOT NULL ORDER BY u.id")
+    List<User> findWithLegacyVerificationToken(Pageable pageable);
     // repository/UserRepository.java
 List<User> findAllByIdIn(List<Long> ids);
 List<User> findByBatchId(String batchId);
 
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
+    long countByIdLessThanEqual(Long id);
+    long countByBatchIdAndIdLessThanEqual(String batchId, Long id);
+    boolean existsByBatchIdAndIdLessThanEqual(String batchId, Long id);
+
+    // Next slice of an audience snapshot in id order (batchId null = everyone)
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.id <= :maxUserId "
+            + "AND (:batchId IS NULL OR u.batchId = :batchId) ORDER BY u.id")
+    List<Long> findAudienceIds(@Param("afterId") Long afterId,
+                               @Param("maxUserId") Long maxUserId,
+                               @Param("batchId") String batchId,
+                               Pageable pageable);
+
+    // Only replaces the hash the caller verified against (a concurrent change wins)
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
+
+    // Flips only the flag; the rest of the row is never rewritten from a loaded entity
+    @Modifying
+    @Query("UPDATE User u SET u.isVerified = true WHERE u.id = :id")
+    int markVerified(@Param("id") Long id);
+
+    // ---- unread badge counters (NULL stays NULL until rebuilt) ----
+
+    interface UnreadState {
+        Long getId();
+        String getBatchId();
+        Integer getUnreadAnnouncements();
+        LocalDateTime getAnnouncementsReadBefore();
+    }
+
+    @Query("SELECT u.id AS id, u.batchId AS batchId, u.unreadAnnouncements AS unreadAnnouncements, "
+            + "u.announcementsReadBefore AS announcementsReadBefore FROM User u WHERE u.id = :id")
+    Optional<UnreadState> findUnreadState(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.unreadAnnouncements = u.unreadAnnouncements + :delta WHERE u.id IN :ids")
+    int addUnread(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.unreadAnnouncements = :value WHERE u.id IN :ids")
+    int setUnread(@Param("ids") Collection<Long> ids, @Param("value") Integer value);
+
+    // Mark-all-read for virtual audiences; the watermark only moves forward
+    @Modifying
+    @Query("UPDATE User u SET u.announcementsReadBefore = :readBefore WHERE u.id IN :ids "
+            + "AND (u.announcementsReadBefore IS NULL OR u.announcementsReadBefore < :readBefore)")
+    int advanceAnnouncementsReadBefore(@Param("ids") Collection<Long> ids,
+                                       @Param("readBefore") LocalDateTime readBefore);
+
+    // Deleting an announcement: everyone who still had it unread loses one
+    @Modifying
+    @Query(value = "UPDATE users SET unread_announcements = unread_announcements - 1 "
+            + "WHERE id IN (SELECT r.user_id FROM announcement_recipient r "
+            + "             WHERE r.announcement_id = :announcementId AND r.status = 'UNREAD')", nativeQuery = true)
+    int decrementUnreadForRecipients(@Param("announcementId") Long announcementId);
+
 }
@@ -4,6 +4,10 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.java_backend.model.User;
 import com.example.java_backend.model.UserSelectedCourse;
@@ -12,4 +16,13 @@ public interface UserSelectedCourseRepository extends JpaRepository<UserSelected
  {  Optional<UserSelectedCourse> findByUserIdAndCourseId(Long userId, Long courseId);
       List<UserSelectedCourse> findByUser(User user);
     void deleteByUserIdAndCourseId(Long userId, Long courseId);
+
+    @Query("SELECT e FROM UserSelectedCourse e JOIN FETCH e.user WHERE e.course.id = :courseId")
+    List<UserSelectedCourse> findByCourseIdWithUser(@Param("courseId") Long courseId);
+
+    // Single-statement update; no read-modify-write of the enrollment row
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserSelectedCourse e SET e.certificateUrl = :url WHERE e.id = :id")
+    int updateCertificateUrl(@Param("id") Long id, @Param("url") String url);
 } 
@@ -0,0 +1,34 @@
+package com.example.java_backend.service;
+
+import java.util.Locale;
+
+// Accept-Encoding matching that honours q-values: "gzip;q=0" explicitly refuses gzip
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    public static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            if (!params[0].trim().toLowerCase(Locale.ROOT).equals(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String p = params[i].trim().toLowerCase(Locale.ROOT);
+                if (p.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(p.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
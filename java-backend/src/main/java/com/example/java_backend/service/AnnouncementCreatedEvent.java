@@ -0,0 +1,20 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.example.java_backend.model.Announcement;
+
+/**
+ * Published by AnnouncementService.create; listeners run after the transaction commits.
+ * Carries just enough to decide which connected users are recipients.
+ */
+public record AnnouncementCreatedEvent(
+        Long id,
+        String title,
+        LocalDateTime createdAt,
+        Announcement.TargetType targetType,
+        String batchId,
+        Long audienceMaxUserId, // null for materialized audiences
+        Set<Long> userIds) {    // only for target == USERS
+}
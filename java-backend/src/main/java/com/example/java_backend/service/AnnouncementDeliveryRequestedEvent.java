@@ -0,0 +1,4 @@
+package com.example.java_backend.service;
+
+// Published when a delivery job is queued; picked up once the creating transaction commits
+public record AnnouncementDeliveryRequestedEvent(Long jobId) {}
@@ -0,0 +1,215 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementDeliveryJob;
+import com.example.java_backend.repository.AnnouncementDeliveryJobRepository;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRepository;
+import com.example.java_backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs announcement delivery jobs: walks the audience snapshot in user-id order and
+ * inserts recipient rows one chunk per transaction, committing the job cursor with
+ * each chunk. Jobs are started right after the announcement commits; a periodic sweep
+ * picks up anything left PENDING/RUNNING (e.g. after a restart) and retries failures.
+ * Assumes a single application instance owns the job table.
+ */
+@Service
+public class AnnouncementDeliveryWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementDeliveryWorker.class);
+
+    private static final Set<AnnouncementDeliveryJob.Status> RESUMABLE =
+            EnumSet.of(AnnouncementDeliveryJob.Status.PENDING, AnnouncementDeliveryJob.Status.RUNNING);
+
+    private final AnnouncementDeliveryJobRepository jobRepository;
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final UserRepository userRepository;
+    private final AnnouncementUnreadCounter unreadCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int maxAttempts;
+
+    // jobs currently owned by a worker thread in this process
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private volatile boolean stopping;
+
+    private final Counter deliveredRows;
+    private final Timer chunkTimer;
+
+    public AnnouncementDeliveryWorker(AnnouncementDeliveryJobRepository jobRepository,
+                                      AnnouncementRepository announcementRepository,
+                                      AnnouncementRecipientRepository recipientRepository,
+                                      UserRepository userRepository,
+                                      AnnouncementUnreadCounter unreadCounter,
+                                      ApplicationEventPublisher eventPublisher,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.announcements.delivery.chunk-size:1000}") int chunkSize,
+                                      @Value("${app.announcements.delivery.workers:2}") int workerCount,
+                                      @Value("${app.announcements.delivery.max-attempts:5}") int maxAttempts) {
+        this.jobRepository = jobRepository;
+        this.announcementRepository = announcementRepository;
+        this.recipientRepository = recipientRepository;
+        this.userRepository = userRepository;
+        this.unreadCounter = unreadCounter;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> new Thread(r, "announcement-delivery"));
+
+        Gauge.builder("announcements.delivery.active_jobs", activeJobs, Set::size)
+                .description("Delivery jobs currently running")
+                .register(meterRegistry);
+        this.deliveredRows = Counter.builder("announcements.delivery.rows")
+                .description("Recipient rows inserted by delivery jobs")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("announcements.delivery.chunk")
+                .description("Time spent resolving and inserting one delivery chunk")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onDeliveryRequested(AnnouncementDeliveryRequestedEvent event) {
+        submit(event.jobId());
+    }
+
+    // Resumes interrupted jobs (first run doubles as startup recovery) and retries failed chunks
+    @Scheduled(initialDelayString = "${app.announcements.delivery.resume-delay-ms:5000}",
+            fixedDelayString = "${app.announcements.delivery.sweep-interval-ms:30000}")
+    public void resumePending() {
+        for (Long jobId : jobRepository.findIdsByStatusIn(RESUMABLE)) {
+            submit(jobId);
+        }
+    }
+
+    private void submit(Long jobId) {
+        if (stopping || !activeJobs.add(jobId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        boolean more = true;
+        while (more && !stopping) {
+            try {
+                more = chunkTimer.record(() -> processChunk(jobId));
+            } catch (RuntimeException e) {
+                recordFailure(jobId, e);
+                return; // the sweep retries from the last committed chunk
+            }
+        }
+    }
+
+    // One transaction: next slice of user ids -> recipient rows -> advanced cursor
+    private boolean processChunk(Long jobId) {
+        Boolean more = transactionTemplate.execute(status -> {
+            AnnouncementDeliveryJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || !RESUMABLE.contains(job.getStatus())) {
+                return false; // deleted together with its announcement, or already finished
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (job.getStatus() == AnnouncementDeliveryJob.Status.PENDING) {
+                job.setStatus(AnnouncementDeliveryJob.Status.RUNNING);
+                job.setStartedAt(now);
+                // counted here rather than on the create request
+                job.setTargetCount(AnnouncementService.countAudience(
+                        userRepository, job.getMaxUserId(), job.getBatchId()));
+            }
+
+            List<Long> userIds = userRepository.findAudienceIds(
+                    job.getLastUserId(), job.getMaxUserId(), job.getBatchId(), PageRequest.of(0, chunkSize));
+            if (!userIds.isEmpty()) {
+                int inserted = recipientRepository.insertForUsers(job.getAnnouncementId(), userIds);
+                unreadCounter.delivered(userIds);
+                job.setLastUserId(userIds.get(userIds.size() - 1));
+                job.setDeliveredCount(job.getDeliveredCount() + inserted);
+                deliveredRows.increment(inserted);
+            }
+            job.setUpdatedAt(now);
+
+            if (userIds.size() < chunkSize) {
+                job.setStatus(AnnouncementDeliveryJob.Status.COMPLETED);
+                job.setCompletedAt(now);
+                announcementRepository.findById(job.getAnnouncementId()).ifPresent(this::publishDelivered);
+                return false;
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(more);
+    }
+
+    // Live push only once every recipient has an inbox row
+    private void publishDelivered(Announcement a) {
+        eventPublisher.publishEvent(new AnnouncementCreatedEvent(
+                a.getId(), a.getTitle(), a.getCreatedAt(), a.getTargetType(), a.getBatchId(),
+                a.getAudienceMaxUserId(), null));
+    }
+
+    private void recordFailure(Long jobId, RuntimeException e) {
+        log.warn("Delivery job {} failed, will retry from its last committed chunk", jobId, e);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setAttempts(job.getAttempts() + 1);
+                String message = String.valueOf(e.getMessage());
+                job.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+                job.setUpdatedAt(LocalDateTime.now());
+                if (job.getAttempts() >= maxAttempts) {
+                    job.setStatus(AnnouncementDeliveryJob.Status.FAILED);
+                }
+            }));
+        } catch (RuntimeException inner) {
+            log.warn("Could not record failure for delivery job {}", jobId, inner);
+        }
+    }
+
+    // Running jobs stop between chunks and stay RUNNING, so the next start resumes them
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
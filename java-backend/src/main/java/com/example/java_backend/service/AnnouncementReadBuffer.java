@@ -0,0 +1,320 @@
+package com.example.java_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.AnnouncementRecipient;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRecipientRepository.RecipientKey;
+import com.example.java_backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for announcement read receipts.
+ * Mark-read calls only record a (user, announcement) pair in memory; duplicates
+ * collapse. Pairs are flushed as set-based UPDATEs on a timer, when the buffer
+ * reaches its size threshold, and once more on shutdown. Existing UNREAD rows are
+ * updated in place; virtual-audience announcements get a sparse READ row instead.
+ * Mark-all-read writes no rows for virtual audiences: it moves the user's read-all
+ * watermark (users.announcements_read_before) to the flush time.
+ * The buffer is bounded: a slot is reserved atomically before an entry is added, past
+ * its capacity new receipts are refused with 503 rather than queued, and entries whose
+ * flush keeps failing are dropped (and logged) after a fixed number of attempts instead
+ * of being retried forever.
+ */
+@Service
+public class AnnouncementReadBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementReadBuffer.class);
+
+    // keeps IN (...) lists at a size every database handles comfortably
+    private static final int CHUNK_SIZE = 500;
+
+    record ReadKey(long userId, long announcementId) {}
+
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final UserRepository userRepository;
+    private final AnnouncementUnreadCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<ReadKey> pendingReads = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingAllRead = ConcurrentHashMap.newKeySet();
+    // entries in both sets plus reserved slots about to be added; never exceeds capacity
+    private final AtomicInteger depth = new AtomicInteger();
+
+    // failed flush attempts per requeued entry; only touched under flushLock
+    private final Map<ReadKey, Integer> readAttempts = new HashMap<>();
+    private final Map<Long, Integer> allReadAttempts = new HashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "announcement-read-flush"));
+
+    private final int maxSize;
+    private final int capacity;
+    private final int maxAttempts;
+    private final Counter flushedRows;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    public AnnouncementReadBuffer(AnnouncementRecipientRepository recipientRepository,
+                                  UserRepository userRepository,
+                                  AnnouncementUnreadCounter unreadCounter,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.announcements.read-buffer.max-size:5000}") int maxSize,
+                                  @Value("${app.announcements.read-buffer.capacity:50000}") int capacity,
+                                  @Value("${app.announcements.read-buffer.max-attempts:5}") int maxAttempts) {
+        this.recipientRepository = recipientRepository;
+        this.userRepository = userRepository;
+        this.unreadCounter = unreadCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.maxSize = maxSize;
+        this.capacity = capacity;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        Gauge.builder("announcements.read_buffer.depth", depth, AtomicInteger::get)
+                .description("Buffered read receipts waiting to be flushed")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("announcements.read_buffer.flushed_rows")
+                .description("Recipient rows marked READ by buffer flushes")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("announcements.read_buffer.rejected")
+                .description("Read receipts refused because the buffer was at capacity")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("announcements.read_buffer.dropped")
+                .description("Buffered read receipts abandoned after repeated flush failures")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("announcements.read_buffer.flush")
+                .description("Time spent flushing buffered read receipts")
+                .register(meterRegistry);
+    }
+
+    public void markRead(Long userId, Long announcementId) {
+        add(pendingReads, new ReadKey(userId, announcementId));
+    }
+
+    public void markAllRead(Long userId) {
+        add(pendingAllRead, userId);
+    }
+
+    public int depth() {
+        return depth.get();
+    }
+
+    private <T> void add(Set<T> pending, T item) {
+        if (!pending.contains(item)) {
+            reserve();
+            if (!pending.add(item)) {
+                depth.decrementAndGet(); // a concurrent caller added the same entry
+            }
+        }
+        flushIfFull();
+    }
+
+    // Backpressure: a full buffer means flushes are failing or behind, so stop accepting work.
+    // The slot is taken with a CAS, so concurrent callers can never push depth past capacity.
+    private void reserve() {
+        while (true) {
+            int current = depth.get();
+            if (current >= capacity) {
+                rejected.increment();
+                flushIfFull();
+                throw new ReadBufferFullException("Too many pending read receipts, please retry shortly");
+            }
+            if (depth.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    // Size-triggered flushes run on the flush thread, never on the request thread.
+    // After shutdown the final flush has already run; nothing more is scheduled.
+    private void flushIfFull() {
+        if (depth() >= maxSize && !flushExecutor.isShutdown() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false); // shut down between the check and the submit
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.announcements.read-buffer.flush-interval-ms:2000}")
+    public void flush() {
+        if (depth() == 0) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<ReadKey> reads = drain(pendingReads);
+            List<Long> allReadUsers = drain(pendingAllRead);
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    int updated = applyAllRead(allReadUsers, now) + applyReads(reads);
+                    flushedRows.increment(updated);
+                }));
+                reads.forEach(readAttempts::remove);
+                allReadUsers.forEach(allReadAttempts::remove);
+            } catch (RuntimeException e) {
+                // put entries back for the next tick until they run out of attempts
+                List<ReadKey> abandonedReads = requeue(reads, readAttempts, pendingReads);
+                List<Long> abandonedAllRead = requeue(allReadUsers, allReadAttempts, pendingAllRead);
+                log.warn("Flushing {} read receipts failed, will retry", reads.size() + allReadUsers.size(), e);
+                if (!abandonedReads.isEmpty() || !abandonedAllRead.isEmpty()) {
+                    dropped.increment(abandonedReads.size() + abandonedAllRead.size());
+                    log.error("Dropping read receipts after {} failed flushes: reads={} allRead={}",
+                            maxAttempts, abandonedReads, abandonedAllRead);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Materialized rows flip to READ; virtual audiences created up to now are covered by the
+    // watermark, so the cost does not grow with the number of virtual announcements
+    private int applyAllRead(List<Long> userIds, LocalDateTime now) {
+        int updated = 0;
+        for (List<Long> chunk : chunks(userIds)) {
+            updated += recipientRepository.updateStatusForUsers(
+                    chunk, AnnouncementRecipient.Status.UNREAD, AnnouncementRecipient.Status.READ);
+            userRepository.advanceAnnouncementsReadBefore(chunk, now);
+            unreadCounter.allRead(chunk);
+        }
+        return updated;
+    }
+
+    private int applyReads(List<ReadKey> reads) {
+        if (reads.isEmpty()) {
+            return 0;
+        }
+        Set<ReadKey> wanted = new HashSet<>(reads);
+
+        // group by user so each lookup is a bounded users x announcements slice
+        Map<Long, Set<Long>> byUser = new HashMap<>();
+        for (ReadKey k : reads) {
+            byUser.computeIfAbsent(k.userId(), u -> new HashSet<>()).add(k.announcementId());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Integer> readsByUser = new HashMap<>();
+        for (List<Long> userChunk : chunks(new ArrayList<>(byUser.keySet()))) {
+            Set<Long> announcementIds = new HashSet<>();
+            for (Long userId : userChunk) {
+                announcementIds.addAll(byUser.get(userId));
+            }
+            for (RecipientKey key : recipientRepository.findKeys(
+                    userChunk, announcementIds, AnnouncementRecipient.Status.UNREAD)) {
+                if (wanted.contains(new ReadKey(key.getUserId(), key.getAnnouncementId()))) {
+                    ids.add(key.getId());
+                    readsByUser.merge(key.getUserId(), 1, Integer::sum);
+                }
+            }
+        }
+
+        int updated = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            updated += recipientRepository.updateStatusByIds(chunk, AnnouncementRecipient.Status.READ);
+        }
+
+        // pairs without a materialized row: one set-based insert per announcement
+        Map<Long, List<Long>> byAnnouncement = new HashMap<>();
+        for (ReadKey k : reads) {
+            byAnnouncement.computeIfAbsent(k.announcementId(), a -> new ArrayList<>()).add(k.userId());
+        }
+        Map<Long, Integer> virtualReadsByUser = new HashMap<>();
+        List<Long> unattributed = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> e : byAnnouncement.entrySet()) {
+            for (List<Long> chunk : chunks(e.getValue())) {
+                // users without any row yet are the only ones the insert can touch
+                List<Long> missing = new ArrayList<>(chunk);
+                missing.removeAll(new HashSet<>(recipientRepository.findUserIdsWithRow(e.getKey(), chunk)));
+                if (missing.isEmpty()) {
+                    continue;
+                }
+                int inserted = recipientRepository.insertVirtualReads(e.getKey(), missing);
+                updated += inserted;
+                if (inserted == missing.size()) {
+                    missing.forEach(userId -> virtualReadsByUser.merge(userId, 1, Integer::sum));
+                } else if (inserted > 0) {
+                    unattributed.addAll(missing); // some were outside the audience
+                }
+            }
+        }
+        unreadCounter.read(readsByUser);
+        unreadCounter.virtualRead(virtualReadsByUser);
+        unreadCounter.forget(unattributed);
+        return updated;
+    }
+
+    // Returns the entries that used up their attempts; the rest go back into the pending set
+    private <T> List<T> requeue(List<T> items, Map<T, Integer> attempts, Set<T> pending) {
+        List<T> abandoned = new ArrayList<>();
+        for (T item : items) {
+            if (attempts.merge(item, 1, Integer::sum) >= maxAttempts) {
+                attempts.remove(item);
+                abandoned.add(item);
+            } else if (pending.add(item)) {
+                // its slot was released by drain; retries are not refused at capacity
+                depth.incrementAndGet();
+            }
+        }
+        return abandoned;
+    }
+
+    private <T> List<T> drain(Set<T> set) {
+        List<T> out = new ArrayList<>();
+        for (T item : set) {
+            if (set.remove(item)) {
+                depth.decrementAndGet();
+                out.add(item);
+            }
+        }
+        return out;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> out = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += CHUNK_SIZE) {
+            out.add(items.subList(i, Math.min(i + CHUNK_SIZE, items.size())));
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementRecipient;
+import com.example.java_backend.repository.AnnouncementArchiveRepository;
+import com.example.java_backend.repository.AnnouncementDeliveryJobRepository;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRepository;
+
+/**
+ * Moves announcements older than the retention window, with their recipient rows, into
+ * the archive tables so the hot tables stay small. Work is bounded per run (announcements)
+ * and per transaction (recipient rows); every step is safe to repeat, so an interrupted
+ * run simply continues on the next schedule.
+ */
+@Service
+public class AnnouncementRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementRetentionService.class);
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final AnnouncementArchiveRepository archiveRepository;
+    private final AnnouncementDeliveryJobRepository deliveryJobRepository;
+    private final AnnouncementUnreadCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int retentionDays;
+    private final int announcementsPerRun;
+    private final int rowsPerTransaction;
+
+    public AnnouncementRetentionService(AnnouncementRepository announcementRepository,
+                                        AnnouncementRecipientRepository recipientRepository,
+                                        AnnouncementArchiveRepository archiveRepository,
+                                        AnnouncementDeliveryJobRepository deliveryJobRepository,
+                                        AnnouncementUnreadCounter unreadCounter,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${app.announcements.retention.days:365}") int retentionDays,
+                                        @Value("${app.announcements.retention.announcements-per-run:100}") int announcementsPerRun,
+                                        @Value("${app.announcements.retention.rows-per-transaction:5000}") int rowsPerTransaction) {
+        this.announcementRepository = announcementRepository;
+        this.recipientRepository = recipientRepository;
+        this.archiveRepository = archiveRepository;
+        this.deliveryJobRepository = deliveryJobRepository;
+        this.unreadCounter = unreadCounter;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.announcementsPerRun = announcementsPerRun;
+        this.rowsPerTransaction = rowsPerTransaction;
+    }
+
+    @Scheduled(cron = "${app.announcements.retention.cron:0 30 3 * * *}")
+    public void archiveExpired() {
+        if (retentionDays <= 0) {
+            return; // retention disabled
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        List<Long> ids = announcementRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, announcementsPerRun));
+        int archived = 0;
+        for (Long id : ids) {
+            try {
+                archive(id);
+                archived++;
+            } catch (RuntimeException e) {
+                log.warn("Archiving announcement {} failed, will retry on the next run", id, e);
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} announcements created before {}", archived, cutoff);
+        }
+    }
+
+    public void archive(Long announcementId) {
+        // 1) copy the announcement and take it out of circulation
+        transactionTemplate.executeWithoutResult(status -> {
+            Announcement a = announcementRepository.findById(announcementId).orElse(null);
+            if (a == null || archiveRepository.copyAnnouncement(announcementId, LocalDateTime.now()) == 0) {
+                return; // gone, or already copied by an earlier run
+            }
+            deliveryJobRepository.deleteByAnnouncementId(announcementId);
+            if (a.isVirtualAudience()) {
+                // hide it from every inbox before its sparse READ rows move, so it
+                // never reappears as unread for readers. Badges derive their virtual share
+                // from this row, so only its audience's cached counts are invalidated; users
+                // is not touched.
+                announcementRepository.clearAudience(announcementId);
+                unreadCounter.virtualAudienceRemoved(a);
+            }
+        });
+
+        // 2) move recipient rows in bounded transactions
+        int moved;
+        do {
+            Integer n = transactionTemplate.execute(status -> moveRecipientChunk(announcementId));
+            moved = n != null ? n : 0;
+        } while (moved == rowsPerTransaction);
+
+        // 3) drop the hot announcement row
+        transactionTemplate.executeWithoutResult(status -> announcementRepository.deleteByIdInBulk(announcementId));
+    }
+
+    // Recipient rows from before they carried the announcement's createdAt (the inbox sorts on
+    // it) are filled once, in bounded transactions walking the primary key
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRecipientCreatedAt() {
+        int filled = 0;
+        long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = recipientRepository.findIdsWithoutCreatedAt(afterId, PageRequest.of(0, rowsPerTransaction));
+            if (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                filled += transactionTemplate.execute(status -> recipientRepository.copyCreatedAt(batch));
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == rowsPerTransaction);
+        if (filled > 0) {
+            log.info("Copied createdAt onto {} announcement recipient rows", filled);
+        }
+    }
+
+    private int moveRecipientChunk(Long announcementId) {
+        List<Long> ids = recipientRepository.findIdsByAnnouncementId(
+                announcementId, PageRequest.of(0, rowsPerTransaction));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.copyRecipients(ids);
+
+        // materialized rows still UNREAD: their owners lose one from the badge
+        Map<Long, Integer> unreadByUser = new HashMap<>();
+        for (Long userId : recipientRepository.findUserIdsByIdsAndStatus(ids, AnnouncementRecipient.Status.UNREAD)) {
+            unreadByUser.merge(userId, 1, Integer::sum);
+        }
+        unreadCounter.read(unreadByUser);
+
+        recipientRepository.deleteByIds(ids);
+        return ids.size();
+    }
+}
@@ -1,38 +1,95 @@
 package com.example.java_backend.service;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.java_backend.dto.admin.AnnouncementCreateRequest;
 import com.example.java_backend.dto.admin.AnnouncementDTO;
+import com.example.java_backend.dto.admin.AnnouncementDeliveryJobDTO;
+import com.example.java_backend.dto.admin.AnnouncementPageDTO;
+import com.example.java_backend.dto.admin.AnnouncementRecipientRow;
 import com.example.java_backend.mapper.AnnouncementMapper;
 import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementDeliveryJob;
 import com.example.java_backend.model.AnnouncementRecipient;
 import com.example.java_backend.model.User;
+import com.example.java_backend.repository.AnnouncementDeliveryJobRepository;
 import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRecipientRepository.StatusCounts;
+import com.example.java_backend.repository.AnnouncementRecipientRepository.UserStatus;
 import com.example.java_backend.repository.AnnouncementRepository;
+import com.example.java_backend.repository.AnnouncementRepository.WatermarkReads;
 import com.example.java_backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class AnnouncementService {
 
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    private static final int MAX_RECIPIENT_PAGE_SIZE = 1000;
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
+    // first-page cursor: sorts after every real (createdAt, id), so all pages share one query shape
+    private static final LocalDateTime FIRST_PAGE_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+    // read-all watermark of a user who never marked everything read
+    private static final LocalDateTime NEVER_READ_ALL = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private static final Comparator<Announcement> INBOX_ORDER = Comparator
+            .comparing(Announcement::getCreatedAt)
+            .thenComparing(Announcement::getId)
+            .reversed();
+
     private final AnnouncementRepository announcementRepository;
     private final AnnouncementRecipientRepository recipientRepository;
     private final UserRepository userRepository;
+    private final AnnouncementDeliveryJobRepository deliveryJobRepository;
+    private final AnnouncementUnreadCounter unreadCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // ALL/BATCH audiences are resolved at read time instead of one row per user
+    private final boolean virtualAudience;
+
+    // sizes of virtual audience snapshots, counted the first time an announcement is listed
+    private final Map<Long, Integer> audienceSizes = new ConcurrentHashMap<>();
 
     public AnnouncementService(AnnouncementRepository announcementRepository,
                                AnnouncementRecipientRepository recipientRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               AnnouncementDeliveryJobRepository deliveryJobRepository,
+                               AnnouncementUnreadCounter unreadCounter,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper,
+                               @Value("${app.announcements.virtual-audience:true}") boolean virtualAudience) {
         this.announcementRepository = announcementRepository;
         this.recipientRepository = recipientRepository;
         this.userRepository = userRepository;
+        this.deliveryJobRepository = deliveryJobRepository;
+        this.unreadCounter = unreadCounter;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.virtualAudience = virtualAudience;
     }
 
     @Transactional
@@ -58,75 +115,193 @@ public class AnnouncementService {
         a.setCreatedBy(creator);
         a.setTargetType(targetType);
         if (targetType == Announcement.TargetType.BATCH) {
+            if (req.getBatchId() == null || req.getBatchId().isBlank()) {
+                throw new IllegalArgumentException("batchId required when target=BATCH");
+            }
             a.setBatchId(req.getBatchId());
         }
 
-        // Save the announcement first
-        a = announcementRepository.save(a);
-
-        // Resolve recipients
-        List<User> recipients = switch (targetType) {
-            case ALL -> userRepository.findAll();
-            case USERS -> {
-                if (req.getUserIds() == null || req.getUserIds().isEmpty()) {
-                    throw new IllegalArgumentException("userIds required when target=USERS");
-                }
-                yield userRepository.findAllById(req.getUserIds());
+        if (targetType != Announcement.TargetType.USERS) {
+            // Snapshot the audience: everyone (or the batch) that exists right now.
+            // Only probed for a first member here; the size is counted off the create path.
+            Long maxUserId = userRepository.findMaxId();
+            boolean empty = maxUserId == null
+                    || (targetType == Announcement.TargetType.BATCH
+                            && !userRepository.existsByBatchIdAndIdLessThanEqual(a.getBatchId(), maxUserId));
+            if (empty) {
+                throw new IllegalStateException("No recipients resolved for this announcement");
             }
-            case BATCH -> {
-                if (req.getBatchId() == null || req.getBatchId().isBlank()) {
-                    throw new IllegalArgumentException("batchId required when target=BATCH");
-                }
-                yield userRepository.findByBatchId(req.getBatchId());
+            a.setAudienceMaxUserId(maxUserId);
+
+            if (virtualAudience) {
+                // Audience expression only. No recipient rows are written;
+                // READ state is added sparsely later.
+                a.setVirtualAudience(true);
+                a = announcementRepository.save(a);
+                unreadCounter.virtualAnnouncementCreated(a);
+                publishCreated(a, null);
+                return AnnouncementMapper.toDTO(a, 0, 0);
             }
-        };
 
-        if (recipients.isEmpty()) {
-            throw new IllegalStateException("No recipients resolved for this announcement");
+            // Materialized: rows are inserted in committed chunks by the delivery worker,
+            // which also pushes the announcement live once the last chunk is in.
+            a = announcementRepository.save(a);
+            AnnouncementDeliveryJob job = new AnnouncementDeliveryJob();
+            job.setAnnouncementId(a.getId());
+            job.setMaxUserId(maxUserId);
+            job.setBatchId(a.getBatchId());
+            job.setCreatedAt(LocalDateTime.now());
+            job = deliveryJobRepository.save(job);
+            eventPublisher.publishEvent(new AnnouncementDeliveryRequestedEvent(job.getId()));
+
+            AnnouncementDTO dto = AnnouncementMapper.toDTO(a, 0, 0);
+            dto.setDeliveryJobId(job.getId());
+            dto.setDeliveryStatus(job.getStatus().name());
+            return dto;
+        }
+
+        // Explicit user lists are bounded by the request itself, so they are inserted
+        // right away (INSERT ... SELECT, no User entities hydrated)
+        if (req.getUserIds() == null || req.getUserIds().isEmpty()) {
+            throw new IllegalArgumentException("userIds required when target=USERS");
         }
+        a = announcementRepository.save(a);
+        Set<Long> userIds = new HashSet<>(req.getUserIds());
+        int recipientCount = recipientRepository.insertForUsers(a.getId(), userIds);
 
-        // Insert recipient rows
-        List<AnnouncementRecipient> rows = new ArrayList<>();
-        for (User u : recipients) {
-            AnnouncementRecipient r = new AnnouncementRecipient();
-            r.setAnnouncement(a);
-            r.setUser(u);
-            rows.add(r);
+        if (recipientCount == 0) {
+            throw new IllegalStateException("No recipients resolved for this announcement");
         }
-        recipientRepository.saveAll(rows);
+        unreadCounter.delivered(userIds);
+
+        publishCreated(a, userIds);
+        return AnnouncementMapper.toDTO(a, recipientCount, 0);
+    }
+
+    // Delivered to listeners (e.g. the SSE stream) only after the transaction commits
+    private void publishCreated(Announcement a, Set<Long> userIds) {
+        eventPublisher.publishEvent(new AnnouncementCreatedEvent(
+                a.getId(), a.getTitle(), a.getCreatedAt(), a.getTargetType(), a.getBatchId(),
+                a.getAudienceMaxUserId(), userIds));
+    }
 
-        return AnnouncementMapper.toDTO(a, rows.size());
+    // Inbox badge: maintained counter for materialized rows plus the derived virtual-audience share
+    public int getUnreadCount(Long userId) {
+        return unreadCounter.unreadCount(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public AnnouncementDeliveryJobDTO getDeliveryJob(Long jobId) {
+        AnnouncementDeliveryJob job = deliveryJobRepository.findById(jobId)
+                .orElseThrow(() -> new NoSuchElementException("Delivery job not found: " + jobId));
+        return toDeliveryJobDTO(job);
+    }
+
+    private static AnnouncementDeliveryJobDTO toDeliveryJobDTO(AnnouncementDeliveryJob job) {
+        AnnouncementDeliveryJobDTO dto = new AnnouncementDeliveryJobDTO();
+        dto.setJobId(job.getId());
+        dto.setAnnouncementId(job.getAnnouncementId());
+        dto.setStatus(job.getStatus().name());
+        dto.setTargetCount(job.getTargetCount());
+        dto.setDeliveredCount(job.getDeliveredCount());
+        dto.setProgress(job.getStatus() == AnnouncementDeliveryJob.Status.COMPLETED ? 1.0
+                : job.getTargetCount() > 0 ? Math.min(1.0, (double) job.getDeliveredCount() / job.getTargetCount()) : 0.0);
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+            double seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+            dto.setRowsPerSecond(seconds > 0 ? job.getDeliveredCount() / seconds : job.getDeliveredCount());
+        }
+        dto.setAttempts(job.getAttempts());
+        dto.setLastError(job.getLastError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+        return dto;
     }
 
     @Transactional(readOnly = true)
     public List<AnnouncementDTO> listAll() {
         List<Announcement> list = announcementRepository.findAll();
-        List<AnnouncementDTO> dtos = new ArrayList<>(list.size());
-        for (Announcement a : list) {
-            int count = recipientRepository.findByAnnouncement(a).size();
-            dtos.add(AnnouncementMapper.toDTO(a, count));
-        }
-        return dtos;
+        return toDTOs(list);
     }
 
+    // One keyset page of recipients, ordered by user id
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> listRecipients(Long announcementId) {
+    public List<AnnouncementRecipientRow> listRecipients(Long announcementId, Long afterUserId, int limit) {
+        Announcement a = announcementRepository.findById(announcementId)
+                .orElseThrow(() -> new NoSuchElementException("Announcement not found: " + announcementId));
+        int pageSize = Math.max(1, Math.min(limit, MAX_RECIPIENT_PAGE_SIZE));
+        return recipientPage(a, afterUserId != null ? afterUserId : 0L, pageSize);
+    }
+
+    // Streams every recipient as CSV, NDJSON or one JSON array (the full /recipients list).
+    // Rows are read page by page (each page a short read-only query) and written straight
+    // to the response, so memory stays flat.
+    public StreamingResponseBody exportRecipients(Long announcementId, String format) {
         Announcement a = announcementRepository.findById(announcementId)
                 .orElseThrow(() -> new NoSuchElementException("Announcement not found: " + announcementId));
+        boolean csv = "csv".equalsIgnoreCase(format);
+        boolean json = "json".equalsIgnoreCase(format);
+        if (!csv && !json && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Invalid format: " + format);
+        }
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write("userId,fullName,email,batchId,status\n");
+            } else if (json) {
+                writer.write('[');
+            }
+            long afterUserId = 0L;
+            boolean first = true;
+            List<AnnouncementRecipientRow> page;
+            do {
+                page = recipientPage(a, afterUserId, EXPORT_PAGE_SIZE);
+                for (AnnouncementRecipientRow row : page) {
+                    if (csv) {
+                        writer.write(row.getUserId() + "," + csvField(row.getFullName()) + ","
+                                + csvField(row.getEmail()) + "," + csvField(row.getBatchId()) + ","
+                                + row.getStatus().name() + "\n");
+                    } else if (json) {
+                        if (!first) {
+                            writer.write(',');
+                        }
+                        writer.write(objectMapper.writeValueAsString(row));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    first = false;
+                }
+                writer.flush();
+                if (!page.isEmpty()) {
+                    afterUserId = page.get(page.size() - 1).getUserId();
+                }
+            } while (page.size() == EXPORT_PAGE_SIZE);
+            if (json) {
+                writer.write(']');
+            }
+            writer.flush();
+        };
+    }
 
-        List<AnnouncementRecipient> recipients = recipientRepository.findByAnnouncement(a);
+    private List<AnnouncementRecipientRow> recipientPage(Announcement a, long afterUserId, int limit) {
+        if (a.isVirtualAudience()) {
+            return recipientRepository.findAudienceRows(a.getId(), a.getCreatedAt(),
+                    a.getAudienceMaxUserId(), a.getBatchId(), afterUserId, PageRequest.of(0, limit));
+        }
+        return recipientRepository.findRecipientRows(a.getId(), afterUserId, PageRequest.of(0, limit));
+    }
 
-        List<Map<String, Object>> out = new ArrayList<>();
-        for (AnnouncementRecipient r : recipients) {
-            Map<String, Object> row = new HashMap<>();
-            row.put("userId", r.getUser().getId());
-            row.put("fullName", r.getUser().getFullName());
-            row.put("email", r.getUser().getEmail());
-            row.put("batchId", r.getUser().getBatchId());
-            row.put("status", r.getStatus().name()); // UNREAD/READ (read later)
-            out.add(row);
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
         }
-        return out;
+        return value;
     }
 
 	@Transactional(readOnly = true)
@@ -134,30 +309,215 @@ public List<AnnouncementDTO> getAnnouncementsForUser(Long userId) {
     User user = userRepository.findById(userId)
             .orElseThrow(() -> new NoSuchElementException("User not found: " + userId));
 
-    // fetch all rows from AnnouncementRecipient for this user
-    List<AnnouncementRecipient> recips = recipientRepository.findByUser(user);
+    // every announcement visible to this user, newest first, read in inbox pages
+    List<Announcement> announcements = new ArrayList<>();
+    List<Announcement> page;
+    LocalDateTime cursorCreatedAt = null;
+    Long cursorId = null;
+    do {
+        page = inboxSlice(user, null, cursorCreatedAt, cursorId, MAX_INBOX_PAGE_SIZE);
+        announcements.addAll(page);
+        if (!page.isEmpty()) {
+            Announcement last = page.get(page.size() - 1);
+            cursorCreatedAt = last.getCreatedAt();
+            cursorId = last.getId();
+        }
+    } while (page.size() == MAX_INBOX_PAGE_SIZE);
+
+    return toDTOs(announcements);
+}
+
 
-    List<AnnouncementDTO> out = new ArrayList<>();
-    for (AnnouncementRecipient r : recips) {
-        Announcement a = r.getAnnouncement();
-        int totalRecipients = recipientRepository.findByAnnouncement(a).size();
-        out.add(AnnouncementMapper.toDTO(a, totalRecipients));
+    // Keyset-paginated inbox: newest first, optionally only UNREAD/READ rows.
+    // The cursor is the (createdAt, id) of the last item on the previous page.
+    @Transactional(readOnly = true)
+    public AnnouncementPageDTO getInboxPage(Long userId, String status, String cursor, int limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found: " + userId));
+
+        AnnouncementRecipient.Status statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFilter = AnnouncementRecipient.Status.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status: " + status);
+            }
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_INBOX_PAGE_SIZE));
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // fetch one extra row to know whether another page exists
+        List<Announcement> announcements = inboxSlice(user, statusFilter, cursorCreatedAt, cursorId, pageSize + 1);
+        boolean hasMore = announcements.size() > pageSize;
+        if (hasMore) {
+            announcements = announcements.subList(0, pageSize);
+        }
+
+        List<AnnouncementDTO> items = toDTOs(announcements);
+
+        // the user's own state; virtual announcements without a row are read if the
+        // read-all watermark covers them, UNREAD otherwise
+        LocalDateTime readBefore = readBefore(user);
+        Map<Long, AnnouncementRecipient.Status> statuses = new HashMap<>();
+        for (Announcement a : announcements) {
+            if (a.isVirtualAudience() && !a.getCreatedAt().isAfter(readBefore)) {
+                statuses.put(a.getId(), AnnouncementRecipient.Status.READ);
+            }
+        }
+        if (!items.isEmpty()) {
+            List<Long> ids = new ArrayList<>(items.size());
+            for (AnnouncementDTO d : items) {
+                ids.add(d.getId());
+            }
+            for (UserStatus s : recipientRepository.findStatuses(userId, ids)) {
+                statuses.putIfAbsent(s.getAnnouncementId(), s.getStatus());
+            }
+        }
+        for (AnnouncementDTO d : items) {
+            d.setReadStatus(statuses.getOrDefault(d.getId(), AnnouncementRecipient.Status.UNREAD).name());
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Announcement last = announcements.get(announcements.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new AnnouncementPageDTO(items, nextCursor);
     }
 
-    // optionally sort newest first
-    out.sort((a1, a2) -> a2.getCreatedAt().compareTo(a1.getCreatedAt()));
+    // Up to limit announcements after the cursor, newest first. Each source (the user's
+    // recipient rows, the ALL audience, the user's batch audience) is one bounded keyset
+    // range, so a page costs three index ranges of at most limit rows however deep it is.
+    // Virtual announcements read by watermark are skipped by the UNREAD filter's range itself.
+    private List<Announcement> inboxSlice(User user, AnnouncementRecipient.Status statusFilter,
+                                          LocalDateTime cursorCreatedAt, Long cursorId, int limit) {
+        Long userId = user.getId();
+        LocalDateTime createdAt = cursorCreatedAt != null ? cursorCreatedAt : FIRST_PAGE_CREATED_AT;
+        long id = cursorId != null ? cursorId : Long.MAX_VALUE;
+        boolean onlyUnread = statusFilter == AnnouncementRecipient.Status.UNREAD;
+        boolean onlyRead = statusFilter == AnnouncementRecipient.Status.READ;
+        LocalDateTime readBefore = readBefore(user);
+        LocalDateTime createdAfter = onlyUnread ? readBefore : NEVER_READ_ALL;
+        PageRequest page = PageRequest.of(0, limit);
 
-    return out;
-}
+        List<Announcement> merged = new ArrayList<>(statusFilter == null
+                ? announcementRepository.findRecipientInboxPage(userId, createdAt, id, page)
+                : announcementRepository.findRecipientInboxPageByStatus(userId, statusFilter, createdAt, id, page));
+        merged.addAll(announcementRepository.findAllAudienceInboxPage(
+                userId, onlyUnread, onlyRead, readBefore, createdAfter, createdAt, id, page));
+        if (user.getBatchId() != null) {
+            merged.addAll(announcementRepository.findBatchAudienceInboxPage(
+                    userId, user.getBatchId(), onlyUnread, onlyRead, readBefore, createdAfter, createdAt, id, page));
+        }
+        merged.sort(INBOX_ORDER);
 
+        // a virtual announcement the user has read also has a READ row: keep it once
+        List<Announcement> slice = new ArrayList<>(Math.min(limit, merged.size()));
+        Set<Long> seen = new HashSet<>();
+        for (Announcement a : merged) {
+            if (slice.size() == limit) {
+                break;
+            }
+            if (seen.add(a.getId())) {
+                slice.add(a);
+            }
+        }
+        return slice;
+    }
+
+    private static LocalDateTime readBefore(User user) {
+        return user.getAnnouncementsReadBefore() != null ? user.getAnnouncementsReadBefore() : NEVER_READ_ALL;
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Maps announcements to DTOs using one grouped count query for the whole list
+    private List<AnnouncementDTO> toDTOs(List<Announcement> announcements) {
+        if (announcements.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Announcement a : announcements) {
+            ids.add(a.getId());
+        }
+
+        Map<Long, StatusCounts> counts = new HashMap<>();
+        for (StatusCounts c : recipientRepository.countByAnnouncementIds(ids, AnnouncementRecipient.Status.READ)) {
+            counts.put(c.getAnnouncementId(), c);
+        }
+        // virtual audiences: members who marked everything read after the announcement
+        Set<Long> virtualIds = new HashSet<>();
+        for (Announcement a : announcements) {
+            if (a.isVirtualAudience()) {
+                virtualIds.add(a.getId());
+            }
+        }
+        Map<Long, Long> watermarkReads = new HashMap<>();
+        if (!virtualIds.isEmpty()) {
+            for (WatermarkReads w : announcementRepository.countWatermarkReads(virtualIds)) {
+                watermarkReads.put(w.getAnnouncementId(), w.getReadCount());
+            }
+        }
+
+        List<AnnouncementDTO> dtos = new ArrayList<>(announcements.size());
+        for (Announcement a : announcements) {
+            StatusCounts c = counts.get(a.getId());
+            int read = (c != null ? (int) c.getReadCount() : 0) + watermarkReads.getOrDefault(a.getId(), 0L).intValue();
+            // virtual audiences only have sparse state rows; their size comes from the snapshot
+            int total = a.isVirtualAudience()
+                    ? audienceSize(a)
+                    : c != null ? (int) c.getTotal() : 0;
+            dtos.add(AnnouncementMapper.toDTO(a, total, read));
+        }
+        return dtos;
+    }
+
+    // Rows written before sizes were counted lazily still carry the size from their create
+    private int audienceSize(Announcement a) {
+        if (a.getAudienceSize() != null) {
+            return a.getAudienceSize();
+        }
+        return audienceSizes.computeIfAbsent(a.getId(), id -> (int) countAudience(
+                userRepository, a.getAudienceMaxUserId(), a.getTargetType() == Announcement.TargetType.BATCH ? a.getBatchId() : null));
+    }
+
+    static long countAudience(UserRepository userRepository, Long maxUserId, String batchId) {
+        if (maxUserId == null) {
+            return 0;
+        }
+        return batchId == null
+                ? userRepository.countByIdLessThanEqual(maxUserId)
+                : userRepository.countByBatchIdAndIdLessThanEqual(batchId, maxUserId);
+    }
 
     @Transactional
     public void delete(Long id) {
         Announcement announcement = announcementRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Announcement not found with id " + id));
 
-        // ✅ Because we set cascade + orphanRemoval, recipients will be deleted automatically.
-        announcementRepository.delete(announcement);
+        // a still-running delivery job stops at its next chunk once its row is gone
+        deliveryJobRepository.deleteByAnnouncementId(id);
+        // materialized: one UPDATE over this announcement's UNREAD rows; virtual: cache invalidation only
+        unreadCounter.announcementDeleted(announcement);
+
+        // Set-based: one DELETE for all recipient rows, no entities loaded
+        recipientRepository.deleteByAnnouncementId(id);
+        announcementRepository.deleteByIdInBulk(id);
+        audienceSizes.remove(id);
     }
 
 
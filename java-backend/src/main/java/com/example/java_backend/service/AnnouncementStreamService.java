@@ -0,0 +1,250 @@
+package com.example.java_backend.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.java_backend.model.User;
+import com.example.java_backend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Server-Sent Events channel for new announcements.
+ * Each connection is an async SseEmitter with a small bounded queue drained by
+ * its own virtual thread, so a slow client never blocks the fan-out: when its
+ * queue is full the connection is dropped and the client reconnects.
+ * Frames are encoded once per event and shared by every connection.
+ */
+@Service
+public class AnnouncementStreamService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AnnouncementStreamService.class);
+
+    private static final Set<DataWithMediaType> PING = SseEmitter.event().comment("ping").build();
+    // queued on close to wake the pump thread; never sent
+    private static final Set<DataWithMediaType> CLOSE = Set.of();
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+    private final int queueCapacity;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private volatile boolean running;
+
+    private final Timer fanOutTimer;
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public AnnouncementStreamService(UserRepository userRepository,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.announcements.stream.timeout-ms:1800000}") long timeoutMs,
+                                     @Value("${app.announcements.stream.queue-capacity:32}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = queueCapacity;
+
+        Gauge.builder("announcements.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open announcement event streams")
+                .register(meterRegistry);
+        this.fanOutTimer = Timer.builder("announcements.stream.fanout")
+                .description("Time to enqueue a new announcement for all connected recipients")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("announcements.stream.delivered")
+                .description("Announcement events enqueued to connected recipients")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("announcements.stream.dropped")
+                .description("Connections dropped because their queue was full")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection conn = new Connection(user.getId(), user.getBatchId(), emitter,
+                new ArrayBlockingQueue<>(queueCapacity));
+
+        connections.computeIfAbsent(conn.userId, id -> ConcurrentHashMap.newKeySet()).add(conn);
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(conn));
+        emitter.onTimeout(() -> remove(conn));
+        emitter.onError(e -> remove(conn));
+
+        Thread.ofVirtual().name("announcement-stream-" + conn.userId).start(() -> pump(conn));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onAnnouncementCreated(AnnouncementCreatedEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> message;
+        try {
+            message = SseEmitter.event()
+                    .id(String.valueOf(event.id()))
+                    .name("announcement")
+                    .data(objectMapper.writeValueAsString(payload(event)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Could not encode announcement event {}", event.id(), e);
+            return;
+        }
+
+        fanOutTimer.record(() -> {
+            for (Set<Connection> userConnections : connections.values()) {
+                for (Connection conn : userConnections) {
+                    if (isRecipient(conn, event)) {
+                        offer(conn, message);
+                    }
+                }
+            }
+        });
+    }
+
+    // Comment frames keep proxies from closing idle streams and surface dead connections
+    @Scheduled(initialDelayString = "${app.announcements.stream.heartbeat-ms:25000}",
+            fixedDelayString = "${app.announcements.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection conn : userConnections) {
+                offer(conn, PING);
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    private static boolean isRecipient(Connection conn, AnnouncementCreatedEvent event) {
+        if (event.audienceMaxUserId() != null && conn.userId > event.audienceMaxUserId()) {
+            return false; // joined after the announcement
+        }
+        return switch (event.targetType()) {
+            case ALL -> true;
+            case BATCH -> Objects.equals(conn.batchId, event.batchId());
+            case USERS -> event.userIds() != null && event.userIds().contains(conn.userId);
+        };
+    }
+
+    private static Map<String, Object> payload(AnnouncementCreatedEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", event.id());
+        data.put("title", event.title());
+        data.put("createdAt", event.createdAt());
+        data.put("targetType", event.targetType().name());
+        return data;
+    }
+
+    private void offer(Connection conn, Set<DataWithMediaType> message) {
+        if (conn.queue.offer(message)) {
+            delivered.increment();
+            return;
+        }
+        // slow consumer: drop the connection rather than buffer without bound
+        dropped.increment();
+        conn.emitter.complete();
+        remove(conn);
+    }
+
+    private void pump(Connection conn) {
+        try {
+            while (!conn.closed.get()) {
+                Set<DataWithMediaType> message = conn.queue.take();
+                if (message == CLOSE) {
+                    break;
+                }
+                conn.emitter.send(message);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Announcement stream for user {} closed: {}", conn.userId, e.getMessage());
+            conn.emitter.completeWithError(e);
+        } finally {
+            remove(conn);
+        }
+    }
+
+    private void remove(Connection conn) {
+        if (!conn.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        connections.computeIfPresent(conn.userId, (id, set) -> {
+            set.remove(conn);
+            return set.isEmpty() ? null : set;
+        });
+        // wake the pump thread so it can exit
+        conn.queue.clear();
+        conn.queue.offer(CLOSE);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    // Runs in the last lifecycle phase, i.e. before the web server's graceful
+    // shutdown, which would otherwise wait for every open stream to time out.
+    @Override
+    public void stop() {
+        running = false;
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection conn : userConnections) {
+                conn.emitter.complete();
+                remove(conn);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final class Connection {
+        final Long userId;
+        final String batchId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> queue;
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Connection(Long userId, String batchId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.userId = userId;
+            this.batchId = batchId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
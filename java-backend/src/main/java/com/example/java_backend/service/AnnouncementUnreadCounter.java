@@ -0,0 +1,280 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementRecipient;
+import com.example.java_backend.model.User;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRepository;
+import com.example.java_backend.repository.UserRepository;
+import com.example.java_backend.repository.UserRepository.UnreadState;
+
+/**
+ * Per-user unread announcement counts for the inbox badge, from two sources.
+ * Materialized recipient rows: users.unread_announcements is kept exact by set-based
+ * updates issued inside the same transactions that insert the rows or record reads; a
+ * NULL column is rebuilt once from the recipient rows, under a row lock, on the next read.
+ * Virtual ALL/BATCH audiences never touch users: on a cache miss their share is derived
+ * as the audience announcements after the user's read-all watermark without a READ row
+ * (a range over announcements since the last mark-all-read, never the users table).
+ * The sum is cached in memory and maintained after commit: deltas for reads, and +1 for
+ * every cached member of a new virtual audience. Removing a virtual announcement
+ * invalidates only its audience (everyone for ALL, one batch for BATCH). Entries expire
+ * after the TTL, so a delta racing a concurrent load can only be off for one TTL; the
+ * cache is capped, and a full cache evicts expired entries first, then the least
+ * recently used, in one trim at a time.
+ */
+@Service
+public class AnnouncementUnreadCounter {
+
+    private static final LocalDateTime NEVER_READ_ALL = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private static final class Entry {
+        final AtomicInteger count;
+        final String batchId;
+        final long allGeneration;
+        final long batchGeneration;
+        final long loadedAt;
+        volatile long lastUsed;
+
+        Entry(int count, String batchId, long allGeneration, long batchGeneration, long now) {
+            this.count = new AtomicInteger(count);
+            this.batchId = batchId;
+            this.allGeneration = allGeneration;
+            this.batchGeneration = batchGeneration;
+            this.loadedAt = now;
+            this.lastUsed = now;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementRecipientRepository recipientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, Entry> cache = new ConcurrentHashMap<>();
+    // bumped when a virtual announcement leaves circulation: everyone's (ALL) or one batch's
+    private final AtomicLong allGeneration = new AtomicLong();
+    private final ConcurrentHashMap<String, AtomicLong> batchGenerations = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public AnnouncementUnreadCounter(UserRepository userRepository,
+                                     AnnouncementRepository announcementRepository,
+                                     AnnouncementRecipientRepository recipientRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${app.announcements.unread-counter.max-entries:100000}") int maxEntries,
+                                     @Value("${app.announcements.unread-counter.ttl-ms:600000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.announcementRepository = announcementRepository;
+        this.recipientRepository = recipientRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public int unreadCount(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry e = cache.get(userId);
+        if (e != null && isFresh(e, now)) {
+            e.lastUsed = now;
+            return Math.max(0, e.count.get());
+        }
+        UnreadState state = userRepository.findUnreadState(userId)
+                .orElseThrow(() -> new NoSuchElementException("User not found: " + userId));
+        // taken before the counts are read, so an audience removed meanwhile makes the entry stale
+        long allGen = allGeneration.get();
+        long batchGen = batchGeneration(state.getBatchId());
+
+        Integer materialized = state.getUnreadAnnouncements();
+        if (materialized == null) {
+            materialized = rebuild(userId);
+        }
+        LocalDateTime readBefore = state.getAnnouncementsReadBefore() != null
+                ? state.getAnnouncementsReadBefore() : NEVER_READ_ALL;
+        int count = materialized
+                + (int) announcementRepository.countVirtualUnreadForUser(userId, state.getBatchId(), readBefore);
+        if (cache.size() < maxEntries || makeRoom(now)) {
+            cache.put(userId, new Entry(count, state.getBatchId(), allGen, batchGen, now));
+        }
+        return Math.max(0, count);
+    }
+
+    private boolean isFresh(Entry e, long now) {
+        return now - e.loadedAt < ttlMillis
+                && e.allGeneration == allGeneration.get()
+                && e.batchGeneration == batchGeneration(e.batchId);
+    }
+
+    private long batchGeneration(String batchId) {
+        AtomicLong generation = batchId != null ? batchGenerations.get(batchId) : null;
+        return generation != null ? generation.get() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${app.announcements.unread-counter.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(e -> !isFresh(e, now));
+    }
+
+    // One trim at a time, down to 90% of the cap: stale entries, then the least recently used.
+    // A caller that finds a trim in progress just does not cache its value.
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (cache.size() < maxEntries) {
+                return true;
+            }
+            cache.values().removeIf(e -> !isFresh(e, now));
+            int excess = cache.size() - (maxEntries - Math.max(1, maxEntries / 10));
+            if (excess > 0) {
+                long[] lastUsed = cache.values().stream().mapToLong(e -> e.lastUsed).toArray();
+                Arrays.sort(lastUsed);
+                long threshold = lastUsed[Math.min(excess, lastUsed.length) - 1];
+                cache.values().removeIf(e -> e.lastUsed <= threshold);
+            }
+            return cache.size() < maxEntries;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Counts the recipient rows once, then the column is maintained incrementally.
+    // The row lock makes concurrent counter updates for this user wait for the rebuilt value.
+    private int rebuild(Long userId) {
+        Integer rebuilt = transactionTemplate.execute(status -> {
+            User user = userRepository.findByIdForUpdate(userId)
+                    .orElseThrow(() -> new NoSuchElementException("User not found: " + userId));
+            if (user.getUnreadAnnouncements() != null) {
+                return user.getUnreadAnnouncements(); // rebuilt by someone else meanwhile
+            }
+            int count = (int) recipientRepository.countByUserIdAndStatus(userId, AnnouncementRecipient.Status.UNREAD);
+            userRepository.setUnread(List.of(userId), count);
+            return count;
+        });
+        return rebuilt != null ? rebuilt : 0;
+    }
+
+    // ---- deltas; call inside the transaction that makes the change ----
+
+    // Recipient rows were inserted for these users
+    public void delivered(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.addUnread(userIds, 1);
+        afterCommit(() -> userIds.forEach(id -> adjust(id, 1)));
+    }
+
+    // A virtual ALL/BATCH announcement was created: nothing is stored per user, every cached
+    // member of its audience (existing at creation, in the batch) gains one
+    public void virtualAnnouncementCreated(Announcement a) {
+        Long maxUserId = a.getAudienceMaxUserId();
+        String batchId = a.getTargetType() == Announcement.TargetType.BATCH ? a.getBatchId() : null;
+        afterCommit(() -> cache.forEach((userId, e) -> {
+            if (userId <= maxUserId && (batchId == null || batchId.equals(e.batchId))) {
+                e.count.incrementAndGet();
+            }
+        }));
+    }
+
+    // A virtual announcement left circulation: whether a member had read it is not known
+    // here, so its audience reloads the derived share on the next read
+    public void virtualAudienceRemoved(Announcement a) {
+        if (a.getTargetType() == Announcement.TargetType.BATCH && a.getBatchId() != null) {
+            afterCommit(() -> batchGenerations.computeIfAbsent(a.getBatchId(), b -> new AtomicLong()).incrementAndGet());
+        } else {
+            afterCommit(allGeneration::incrementAndGet);
+        }
+    }
+
+    // userId -> number of materialized recipient rows that went from UNREAD to READ
+    public void read(Map<Long, Integer> readsByUser) {
+        if (readsByUser.isEmpty()) {
+            return;
+        }
+        // one UPDATE per distinct delta rather than per user
+        Map<Integer, List<Long>> byDelta = new HashMap<>();
+        readsByUser.forEach((id, n) -> byDelta.computeIfAbsent(n, k -> new ArrayList<>()).add(id));
+        byDelta.forEach((n, ids) -> userRepository.addUnread(ids, -n));
+        afterCommit(() -> readsByUser.forEach((id, n) -> adjust(id, -n)));
+    }
+
+    // userId -> number of READ rows inserted for virtual-audience announcements
+    public void virtualRead(Map<Long, Integer> readsByUser) {
+        if (!readsByUser.isEmpty()) {
+            afterCommit(() -> readsByUser.forEach((id, n) -> adjust(id, -n)));
+        }
+    }
+
+    public void allRead(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.setUnread(userIds, 0);
+        afterCommit(() -> userIds.forEach(id -> cache.computeIfPresent(id, (k, e) -> {
+            e.count.set(0);
+            return e;
+        })));
+    }
+
+    // Change could not be attributed per user: reload these users' counts on next read
+    public void forget(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            afterCommit(() -> userIds.forEach(cache::remove));
+        }
+    }
+
+    // Call before the announcement and its recipient rows are removed
+    public void announcementDeleted(Announcement a) {
+        if (a.isVirtualAudience()) {
+            virtualAudienceRemoved(a);
+            return;
+        }
+        userRepository.decrementUnreadForRecipients(a.getId());
+        // deletes are rare; reloading every badge from its column is cheaper than tracking who had it unread
+        afterCommit(cache::clear);
+    }
+
+    private void adjust(Long userId, int delta) {
+        Entry e = cache.get(userId);
+        if (e != null) {
+            e.count.addAndGet(delta);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -61,40 +61,30 @@ public class AuthService {
 
 package com.example.java_backend.service;
 
-import java.io.IOException;
-import java.security.GeneralSecurityException;
-import java.util.Collections;
-import java.util.UUID;
-
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.java_backend.dto.auth.AuthResponse;
 import com.example.java_backend.dto.auth.LoginRequest;
 import com.example.java_backend.dto.auth.RegisterRequest;
 import com.example.java_backend.model.User;
 import com.example.java_backend.repository.UserRepository;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.googleapis.util.Utils;
+import com.example.java_backend.service.GoogleTokenVerifier.GoogleIdentity;
 
 @Service
 public class AuthService {
 
     @Autowired private UserRepository userRepository;
     @Autowired private JwtService jwtService;
-    @Autowired private EmailService emailService;
+    @Autowired private GoogleTokenVerifier googleTokenVerifier;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-
-    @Value("${app.base-url}")
-    private String appBaseUrl;
-
-    @Value("${google.client-id}")
-    private String googleClientId;
+    // BCrypt runs on its own bounded pool, never directly on request threads
+    @Autowired private PasswordHashingService passwordHashing;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private RefreshTokenService refreshTokenService;
+    @Autowired private TokenRevocationService revocationService;
+    @Autowired private EmailVerificationService emailVerificationService;
 
     // -------------------------------
     // Email/password registration
@@ -107,21 +97,16 @@ public class AuthService {
         User user = new User();
         user.setFullName(req.getFullName());
         user.setEmail(req.getEmail());
-        user.setPassword(passwordEncoder.encode(req.getPassword()));
+        user.setPassword(passwordHashing.encode(req.getPassword()));
         user.setRole("USER");
         user.setVerified(false); // Not verified yet
 
-        // Generate unique verification token
-        String token = UUID.randomUUID().toString();
-        user.setVerificationToken(token);
-
-        userRepository.save(user);
-
-        // Send verification email
-        String verificationLink = appBaseUrl + "/api/auth/verify?token=" + token;
-        String message = "Hi " + user.getFullName() + ",\n\nPlease verify your email using this link:\n" 
-            + verificationLink + "\n\nThank you!";
-        emailService.sendEmail(user.getEmail(), "Verify your account", message);
+        // User row, verification token and outbox email commit together in one short
+        // transaction; hashing above stays outside it so no connection is held meanwhile
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            emailVerificationService.sendVerificationEmail(user.getId(), user.getFullName(), user.getEmail());
+        });
 
         return new AuthResponse(null, user.getId(), user.getFullName(), user.getEmail(), user.getRole());
     }
@@ -130,42 +115,24 @@ public class AuthService {
     // Google OAuth Login
     // -------------------------------
     public AuthResponse googleLogin(String idTokenString) {
-        try {
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    Utils.getDefaultTransport(),
-                    Utils.getDefaultJsonFactory()
-            )
-            .setAudience(Collections.singletonList(googleClientId))
-            .build();
-
-            GoogleIdToken idToken = verifier.verify(idTokenString);
-
-            if (idToken == null) {
-                throw new RuntimeException("Invalid ID token.");
-            }
-
-            Payload payload = idToken.getPayload();
-            String email = payload.getEmail();
-            String name = (String) payload.get("name");
-
-            // Check if user already exists
-            User user = userRepository.findByEmail(email).orElse(null);
-
-            if (user == null) {
-                user = new User();
-                user.setFullName(name);
-                user.setEmail(email);
-                user.setVerified(true); // Google already verified email
-                user.setRole("USER");
-                userRepository.save(user);
-            }
-
-            String token = jwtService.generateToken(user.getEmail());
-            return new AuthResponse(token, user.getId(), user.getFullName(), user.getEmail(), user.getRole());
-
-        } catch (GeneralSecurityException | IOException e) {
-            throw new RuntimeException("Google token verification failed: " + e.getMessage());
+        // Shared verifier: cached signing keys and recently verified tokens
+        GoogleIdentity identity = googleTokenVerifier.verify(idTokenString);
+        String email = identity.email();
+        String name = identity.name();
+
+        // Check if user already exists
+        User user = userRepository.findByEmail(email).orElse(null);
+
+        if (user == null) {
+            user = new User();
+            user.setFullName(name);
+            user.setEmail(email);
+            user.setVerified(true); // Google already verified email
+            user.setRole("USER");
+            userRepository.save(user);
         }
+
+        return issueTokens(user);
     }
 
     // -------------------------------
@@ -175,25 +142,53 @@ public class AuthService {
         User user = userRepository.findByEmail(req.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(req.getPassword(), user.getPassword())) {
+        if (!passwordHashing.matches(req.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
-        String token = jwtService.generateToken(user.getEmail());
-        return new AuthResponse(token, user.getId(), user.getFullName(), user.getEmail(), user.getRole());
+        // Stored hash uses an outdated cost: upgrade it in the background
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            Long userId = user.getId();
+            String oldHash = user.getPassword();
+            passwordHashing.encodeLater(req.getPassword())
+                    .thenAccept(newHash -> userRepository.updatePasswordIfUnchanged(userId, oldHash, newHash));
+        }
+
+        return issueTokens(user);
     }
 
     // -------------------------------
-    // Email verification
+    // Refresh / logout
     // -------------------------------
-    public String verifyEmail(String token) {
-        User user = userRepository.findByVerificationToken(token)
-                .orElseThrow(() -> new RuntimeException("Invalid verification link."));
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+                .orElseThrow(() -> new InvalidTokenException("User not found"));
+        String token = jwtService.generateToken(user);
+        return new AuthResponse(token, user.getId(), user.getFullName(), user.getEmail(), user.getRole(),
+                rotation.refreshToken());
+    }
 
-        user.setVerified(true);
-        user.setVerificationToken(null);
-        userRepository.save(user);
+    // Ends the refresh token's session and, when given, the access token still in use
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        JwtService.JwtPrincipal principal = accessToken != null ? jwtService.verify(accessToken) : null;
+        if (principal != null) {
+            revocationService.revoke(principal.jti(), principal.expiresAtMillis());
+        }
+    }
+
+    private AuthResponse issueTokens(User user) {
+        String token = jwtService.generateToken(user);
+        String refreshToken = refreshTokenService.issue(user.getId());
+        return new AuthResponse(token, user.getId(), user.getFullName(), user.getEmail(), user.getRole(), refreshToken);
+    }
 
+    // -------------------------------
+    // Email verification
+    // -------------------------------
+    public String verifyEmail(String token) {
+        emailVerificationService.verify(token);
         return "Email verified successfully.";
     }
 
@@ -205,7 +200,7 @@ public class AuthService {
             User admin = new User();
             admin.setFullName("Admin User");
             admin.setEmail("admin@email.com");
-            admin.setPassword(passwordEncoder.encode("admin123"));
+            admin.setPassword(passwordHashing.encode("admin123"));
             admin.setRole("ADMIN");
             admin.setVerified(true);
             userRepository.save(admin);
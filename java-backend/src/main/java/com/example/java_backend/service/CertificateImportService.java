@@ -0,0 +1,117 @@
+package com.example.java_backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.dto.admin.CertificateImportReport;
+import com.example.java_backend.model.UserSelectedCourse;
+import com.example.java_backend.repository.CourseRepository;
+import com.example.java_backend.repository.UserSelectedCourseRepository;
+
+/**
+ * Admin batch upload of a cohort's certificates for one course as a zip archive.
+ * Each entry is named after the student's email or student id (e.g. "jane@x.pdf",
+ * "ST-042.pdf"). The archive is read as a stream, entry by entry, straight into
+ * content-addressed storage; entries that match no enrollment or fail the size/type
+ * checks are reported and skipped. An archive with too many files, or one that turns out
+ * to be corrupt part-way, ends the import at that entry with an error row; the certificate
+ * URLs of all entries stored up to then are set in one transaction either way.
+ */
+@Service
+public class CertificateImportService {
+
+    private final CertificateStorageService storage;
+    private final CourseRepository courseRepository;
+    private final UserSelectedCourseRepository userSelectedCourseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxEntries;
+
+    public CertificateImportService(CertificateStorageService storage,
+                                    CourseRepository courseRepository,
+                                    UserSelectedCourseRepository userSelectedCourseRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${app.certificates.batch.max-entries:2000}") int maxEntries) {
+        this.storage = storage;
+        this.courseRepository = courseRepository;
+        this.userSelectedCourseRepository = userSelectedCourseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxEntries = maxEntries;
+    }
+
+    public CertificateImportReport importZip(Long courseId, InputStream zip) throws IOException {
+        if (!courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found");
+        }
+        // email and student id (lower-cased) -> enrollment
+        Map<String, Long> enrollments = new HashMap<>();
+        for (UserSelectedCourse e : userSelectedCourseRepository.findByCourseIdWithUser(courseId)) {
+            enrollments.put(e.getUser().getEmail().toLowerCase(Locale.ROOT), e.getId());
+            if (e.getUser().getStudentId() != null && !e.getUser().getStudentId().isBlank()) {
+                enrollments.putIfAbsent(e.getUser().getStudentId().trim().toLowerCase(Locale.ROOT), e.getId());
+            }
+        }
+
+        CertificateImportReport report = new CertificateImportReport();
+        Map<Long, String> urls = new LinkedHashMap<>();
+        String name = null;
+        try (ZipInputStream in = new ZipInputStream(zip)) {
+            int files = 0;
+            while (true) {
+                name = null; // a failure reading the next header belongs to no entry
+                ZipEntry entry = in.getNextEntry();
+                if (entry == null) {
+                    break;
+                }
+                name = entry.getName();
+                String base = name.substring(name.lastIndexOf('/') + 1);
+                if (entry.isDirectory() || base.isEmpty() || base.startsWith(".") || name.startsWith("__MACOSX/")) {
+                    continue; // folders and archiver metadata
+                }
+                if (++files > maxEntries) {
+                    report.failed(name, null, "Archive has more than " + maxEntries
+                            + " files; this and the following entries were skipped");
+                    break;
+                }
+                int dot = base.lastIndexOf('.');
+                String student = (dot > 0 ? base.substring(0, dot) : base).trim();
+                Long enrollmentId = enrollments.get(student.toLowerCase(Locale.ROOT));
+                if (enrollmentId == null) {
+                    report.failed(name, student, "No enrollment in this course for this email or student id");
+                    continue;
+                }
+                if (urls.containsKey(enrollmentId)) {
+                    report.failed(name, student, "Duplicate certificate for this student in archive");
+                    continue;
+                }
+                try {
+                    // entry sizes come from the archive and may be absent or wrong; the stream is still counted
+                    String url = storage.store(in, entry.getSize()).url();
+                    urls.put(enrollmentId, url);
+                    report.stored(name, student, enrollmentId, url);
+                } catch (IllegalArgumentException e) {
+                    report.failed(name, student, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            // files stored so far are kept and linked below
+            report.failed(name != null ? name : "(archive)", null,
+                    "Archive could not be read (" + e.getMessage() + "); this and the following entries were skipped");
+        }
+
+        if (!urls.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    urls.forEach(userSelectedCourseRepository::updateCertificateUrl));
+        }
+        return report;
+    }
+}
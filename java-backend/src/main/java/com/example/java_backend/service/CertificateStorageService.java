@@ -0,0 +1,129 @@
+package com.example.java_backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content-addressed certificate files under {@code <uploads>/certificates/<sha-256>.<ext>}.
+ * Uploads are streamed through a fixed buffer into a temp file next to the target while
+ * the digest is computed, so memory use does not depend on file size; the type is sniffed
+ * from the first bytes and the size is checked as bytes arrive, rejecting bad uploads
+ * before they are read in full. The finished file is renamed into place atomically, and
+ * an upload whose content is already stored just reuses the existing file.
+ */
+@Service
+public class CertificateStorageService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SNIFF_BYTES = 12;
+    private static final String URL_PREFIX = "/uploads/certificates/";
+
+    public record StoredCertificate(String url, String sha256, long size, boolean deduplicated) {}
+
+    private final Path dir;
+    private final long maxBytes;
+    private final List<String> allowedTypes;
+
+    public CertificateStorageService(@Value("${app.uploads.dir:uploads}") String uploadsDir,
+                                     @Value("${app.certificates.max-bytes:10485760}") long maxBytes,
+                                     @Value("${app.certificates.allowed-types:pdf,png,jpg}") List<String> allowedTypes) {
+        this.dir = Path.of(uploadsDir, "certificates").toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.allowedTypes = allowedTypes.stream()
+                .map(t -> t.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+
+    // declaredSize (-1 if unknown) lets oversized uploads fail before any byte is read.
+    // The stream is read to the end of the certificate but not closed (zip entries).
+    public StoredCertificate store(InputStream in, long declaredSize) throws IOException {
+        if (declaredSize > maxBytes) {
+            throw new IllegalArgumentException(tooLarge());
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int head = in.readNBytes(buffer, 0, SNIFF_BYTES);
+        String type = sniff(buffer, head);
+        if (type == null || !allowedTypes.contains(type)) {
+            throw new IllegalArgumentException("Unsupported certificate type, allowed: " + String.join(", ", allowedTypes));
+        }
+
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, ".upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = head;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                digest.update(buffer, 0, head);
+                out.write(buffer, 0, head);
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException(tooLarge());
+                    }
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String name = hash + "." + type;
+            Path target = dir.resolve(name);
+            boolean existing = Files.exists(target);
+            if (!existing) {
+                // a concurrent upload of the same content may win the rename; both wrote identical bytes
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredCertificate(URL_PREFIX + name, hash, size, existing);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private String tooLarge() {
+        return "Certificate exceeds " + (maxBytes / 1024) + " KB";
+    }
+
+    // Magic numbers rather than the client's file name or Content-Type
+    private static String sniff(byte[] b, int n) {
+        if (n >= 5 && startsWith(b, "%PDF-".getBytes())) {
+            return "pdf";
+        }
+        if (n >= 8 && startsWith(b, new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})) {
+            return "png";
+        }
+        if (n >= 3 && startsWith(b, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})) {
+            return "jpg";
+        }
+        if (n >= 12 && startsWith(b, "RIFF".getBytes()) && Arrays.equals(b, 8, 12, "WEBP".getBytes(), 0, 4)) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] b, byte[] prefix) {
+        return Arrays.equals(b, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
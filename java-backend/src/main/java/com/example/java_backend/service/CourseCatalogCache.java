@@ -0,0 +1,126 @@
+package com.example.java_backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.java_backend.dto.course.CourseDTO;
+import com.example.java_backend.mapper.CourseMapper;
+import com.example.java_backend.repository.CourseRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Read-through snapshot of the course catalog. Each version holds the DTO list, its
+ * JSON, a gzipped copy and a strong ETag (hash of the JSON), all computed once, so
+ * GET /api/courses serves pre-encoded bytes or a 304 without touching the database.
+ * Course writes bump the generation after commit and the next read rebuilds; the
+ * snapshot is also rebuilt after max-age so edits made on other instances show up.
+ * Enrollment count flushes do not bump the generation (the ETag would change every few
+ * seconds), so participant counts here can be up to max-age old; /catalog and /search
+ * serve the live counts.
+ */
+@Component
+public class CourseCatalogCache {
+
+    public record Snapshot(List<CourseDTO> courses, byte[] json, byte[] gzip, String etag, String gzipEtag,
+                           long generation, long builtAtMillis) {}
+
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CourseCatalogCache(CourseRepository courseRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.courses.catalog.max-age-ms:60000}") long maxAgeMillis) {
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            // generation is read before loading: a write committed meanwhile leaves this
+            // snapshot already stale, so the next read rebuilds again
+            current = build(generation.get());
+            snapshot = current;
+            return current;
+        }
+    }
+
+    // Called from course writes; takes effect once the write is committed
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generation.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                generation.incrementAndGet();
+            }
+        });
+    }
+
+    private boolean isFresh(Snapshot s) {
+        return s != null && s.generation() == generation.get()
+                && System.currentTimeMillis() - s.builtAtMillis() < maxAgeMillis;
+    }
+
+    private Snapshot build(long gen) {
+        List<CourseDTO> courses = courseRepository.findAll().stream()
+                .map(CourseMapper::toDTO)
+                .collect(Collectors.toUnmodifiableList());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(courses);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize course catalog", e);
+        }
+        String tag = hash(json);
+        return new Snapshot(courses, json, gzip(json), "\"" + tag + "\"", "\"" + tag + "-gzip\"",
+                gen, System.currentTimeMillis());
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
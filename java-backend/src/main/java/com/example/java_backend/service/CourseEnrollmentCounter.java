@@ -0,0 +1,217 @@
+package com.example.java_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.mapper.CourseMapper;
+import com.example.java_backend.model.Course;
+import com.example.java_backend.repository.CourseRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Live Course.totalParticipants. Book/unenroll add +1/-1 to a per-course LongAdder once
+ * their transaction commits, so concurrent enrollments on a popular course never queue
+ * on its row lock. A single flusher periodically applies the summed deltas with a few
+ * set-based UPDATEs and then refreshes the search index; the ETagged catalog snapshot
+ * is left alone and picks the counts up on its next rebuild.
+ * {@link #participants} gives the persisted value plus what is still pending.
+ * Counts are recomputed from the enrollment table nightly, by one instance at a time.
+ * Each recount bumps the course's participantsEpoch: deltas are kept per epoch read by
+ * their transaction and flushed only while it is still current, so deltas that other
+ * instances buffered before the recount (and that it already counted) are dropped.
+ */
+@Service
+public class CourseEnrollmentCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseEnrollmentCounter.class);
+
+    private final CourseRepository courseRepository;
+    private final CourseCatalogCache catalogCache;
+    private final CourseSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    // deltas of one course, all from transactions that read the same participantsEpoch
+    private static final class Pending {
+        final int epoch;
+        final LongAdder delta = new LongAdder();
+
+        Pending(int epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private record Taken(Long courseId, Pending pending, long delta) {}
+
+    private record Statement(long delta, int epoch) {}
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushedDeltas;
+
+    public CourseEnrollmentCounter(CourseRepository courseRepository,
+                                   CourseCatalogCache catalogCache,
+                                   CourseSearchIndex searchIndex,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("courses.enrollment_counter.pending", pending, CourseEnrollmentCounter::pendingTotal)
+                .description("Enrollment changes not yet written to course.total_participants")
+                .register(meterRegistry);
+        this.flushedDeltas = Counter.builder("courses.enrollment_counter.flushed")
+                .description("Enrollment changes written by counter flushes")
+                .register(meterRegistry);
+    }
+
+    // course as loaded by the enrollment's transaction, so its epoch is the one that transaction saw
+    public void enrolled(Course course) {
+        Long courseId = course.getId();
+        int epoch = course.getParticipantsEpoch();
+        afterCommit(() -> add(courseId, epoch, 1));
+    }
+
+    public void unenrolled(Course course) {
+        Long courseId = course.getId();
+        int epoch = course.getParticipantsEpoch();
+        afterCommit(() -> add(courseId, epoch, -1));
+    }
+
+    private void add(Long courseId, int epoch, long delta) {
+        Pending p = pending.get(courseId);
+        if (p == null || p.epoch != epoch) {
+            // a newer epoch means a recount committed: what is pending from before it was counted
+            p = pending.compute(courseId, (id, current) ->
+                    current == null || current.epoch < epoch ? new Pending(epoch) : current);
+            if (p.epoch != epoch) {
+                return; // read before the last recount committed, which already counted it
+            }
+        }
+        p.delta.add(delta);
+    }
+
+    public int participants(Long courseId, int persisted) {
+        Pending p = pending.get(courseId);
+        return p == null ? persisted : (int) (persisted + p.delta.sum());
+    }
+
+    private static long pendingTotal(Map<Long, Pending> pending) {
+        long total = 0;
+        for (Pending p : pending.values()) {
+            total += Math.abs(p.delta.sum());
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${app.courses.enrollment-counter.flush-interval-ms:5000}")
+    public void flush() {
+        List<Taken> taken;
+        flushLock.lock();
+        try {
+            // read, persist, then subtract what was persisted: increments that race with
+            // the flush stay in the adder for the next run instead of being lost
+            taken = takePending();
+            if (taken.isEmpty()) {
+                return;
+            }
+            Map<Statement, List<Long>> byDelta = new HashMap<>();
+            for (Taken t : taken) {
+                byDelta.computeIfAbsent(new Statement(t.delta(), t.pending().epoch), s -> new ArrayList<>())
+                        .add(t.courseId());
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> byDelta.forEach((s, ids) ->
+                        courseRepository.addParticipants(ids, (int) s.delta(), s.epoch())));
+            } catch (RuntimeException e) {
+                log.warn("Flushing {} course enrollment counts failed, will retry", taken.size(), e);
+                return;
+            }
+            // subtracted whether written or dropped as recounted
+            for (Taken t : taken) {
+                t.pending().delta.add(-t.delta());
+                flushedDeltas.increment(Math.abs(t.delta()));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        // search re-sorts the changed courses. The catalog snapshot is not invalidated: its
+        // ETag would change every flush; counts there refresh with its max-age rebuild
+        List<Long> ids = taken.stream().map(Taken::courseId).toList();
+        courseRepository.findAllById(ids).forEach(course -> searchIndex.upsert(CourseMapper.toDTO(course)));
+    }
+
+    @Scheduled(cron = "${app.courses.enrollment-counter.recount-cron:0 10 4 * * *}")
+    public void recount() {
+        // write out what this instance holds first, so the recount starts from nothing pending
+        flush();
+        // Deltas still pending here or on other instances carry the old epoch: the
+        // recount includes them and their flush no longer matches, so nothing is
+        // subtracted in memory
+        Integer courses = transactionTemplate.execute(status -> {
+            Integer locked = courseRepository.tryRecountLock();
+            if (locked == null || locked != 1) {
+                return null; // another instance is recounting
+            }
+            try {
+                return courseRepository.recountParticipants();
+            } finally {
+                courseRepository.releaseRecountLock();
+            }
+        });
+        if (courses == null) {
+            log.info("Participant recount skipped, another instance holds the lock");
+            return;
+        }
+        log.info("Recounted participants for {} courses", courses);
+        catalogCache.invalidate();
+        searchIndex.rebuild();
+    }
+
+    private List<Taken> takePending() {
+        List<Taken> taken = new ArrayList<>();
+        pending.forEach((courseId, p) -> {
+            long delta = p.delta.sum();
+            if (delta != 0) {
+                taken.add(new Taken(courseId, p, delta));
+            }
+        });
+        return taken;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.java_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.java_backend.dto.course.CoursePageDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Keyset-paginated course listing with sparse fieldsets: the query selects only the
+ * requested columns (a tuple projection, no entities are loaded) and each item is
+ * serialized with just those fields.
+ */
+@Service
+public class CourseQueryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Fields a caller may request, in output order (CourseDTO names = Course attribute names)
+    private static final List<String> FIELDS = List.of("id", "title", "description", "image", "mode", "rating",
+            "reviews", "price", "level", "totalParticipants", "certificateProviders", "promoCode", "demoCertificate");
+
+    public enum Sort {
+        ID(null), RATING("rating"), PARTICIPANTS("totalParticipants");
+
+        private final String attribute;
+
+        Sort(String attribute) {
+            this.attribute = attribute;
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final CourseEnrollmentCounter enrollmentCounter;
+
+    public CourseQueryService(EntityManager entityManager, CourseEnrollmentCounter enrollmentCounter) {
+        this.entityManager = entityManager;
+        this.enrollmentCounter = enrollmentCounter;
+    }
+
+    // ID sorts ascending; RATING / PARTICIPANTS sort descending with id, also descending, as
+    // the tiebreaker, so the (sort key, id) indexes on Course are read backwards in order
+    // without a filesort. The cursor is the (sort value, id) of the last item on the
+    // previous page and is applied as one row-value comparison the index can range-scan.
+    @Transactional(readOnly = true)
+    public CoursePageDTO getPage(String fields, String sort, String cursor, int limit) {
+        Set<String> requested = parseFields(fields);
+        Sort sortBy = parseSort(sort);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Object[] after = cursor != null && !cursor.isBlank() ? parseCursor(sortBy, cursor) : null;
+
+        // id and the sort key are always read (for the cursor) but only returned if requested
+        Set<String> selected = new LinkedHashSet<>(requested);
+        selected.add("id");
+        if (sortBy.attribute != null) {
+            selected.add(sortBy.attribute);
+        }
+        // field names come from the FIELDS whitelist, never from the raw request
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        String separator = "";
+        for (String field : selected) {
+            jpql.append(separator).append("c.").append(field).append(" AS ").append(field);
+            separator = ", ";
+        }
+        jpql.append(" FROM Course c");
+        if (sortBy.attribute == null) {
+            if (after != null) {
+                jpql.append(" WHERE c.id > :lastId");
+            }
+            jpql.append(" ORDER BY c.id");
+        } else {
+            if (after != null) {
+                jpql.append(" WHERE (c.").append(sortBy.attribute).append(", c.id) < (:lastKey, :lastId)");
+            }
+            jpql.append(" ORDER BY c.").append(sortBy.attribute).append(" DESC, c.id DESC");
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (after != null) {
+            query.setParameter("lastId", after[1]);
+            if (sortBy.attribute != null) {
+                query.setParameter("lastKey", after[0]);
+            }
+        }
+        // fetch one extra row to know whether another page exists
+        List<Tuple> rows = query.setMaxResults(pageSize + 1).getResultList();
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String field : requested) {
+                item.put(field, row.get(field));
+            }
+            if (item.containsKey("totalParticipants")) {
+                item.put("totalParticipants", enrollmentCounter.participants(row.get("id", Long.class),
+                        row.get("totalParticipants", Integer.class)));
+            }
+            items.add(item);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Tuple last = rows.get(rows.size() - 1);
+            Object key = sortBy.attribute != null ? last.get(sortBy.attribute) : "";
+            nextCursor = encodeCursor(key + "|" + last.get("id"));
+        }
+        return new CoursePageDTO(items, nextCursor);
+    }
+
+    // Returns {last sort value, last id}, typed to match the sort attribute
+    private static Object[] parseCursor(Sort sortBy, String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            Long lastId = Long.parseLong(parts[1]);
+            Object lastKey = switch (sortBy) {
+                case RATING -> Double.parseDouble(parts[0]);
+                case PARTICIPANTS -> Integer.parseInt(parts[0]);
+                default -> null;
+            };
+            return new Object[] {lastKey, lastId};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new LinkedHashSet<>(FIELDS);
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String f = field.trim();
+            if (f.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(f)) {
+                throw new IllegalArgumentException("Unknown field: " + f);
+            }
+            requested.add(f);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+        return requested;
+    }
+
+    private static Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.ID;
+        }
+        return switch (sort.trim().toLowerCase(Locale.ROOT)) {
+            case "id" -> Sort.ID;
+            case "rating" -> Sort.RATING;
+            case "participants", "totalparticipants" -> Sort.PARTICIPANTS;
+            default -> throw new IllegalArgumentException("Invalid sort: " + sort);
+        };
+    }
+
+    private static String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
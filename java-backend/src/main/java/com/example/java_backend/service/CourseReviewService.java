@@ -0,0 +1,118 @@
+package com.example.java_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.java_backend.dto.course.CourseReviewDTO;
+import com.example.java_backend.dto.course.CourseReviewPageDTO;
+import com.example.java_backend.mapper.CourseMapper;
+import com.example.java_backend.model.Course;
+import com.example.java_backend.model.CourseReview;
+import com.example.java_backend.repository.CourseRepository;
+import com.example.java_backend.repository.CourseReviewRepository;
+import com.example.java_backend.repository.UserSelectedCourseRepository;
+
+/**
+ * Student reviews. Course.rating/reviews are kept current incrementally: each submission
+ * applies its delta (new rating, or the change of an existing one) with one atomic UPDATE
+ * on the course row, so there is no read-modify-write race and reviews are never
+ * re-scanned. Catalog reads keep using the stored average at no extra cost.
+ */
+@Service
+public class CourseReviewService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final CourseReviewRepository reviewRepository;
+    private final CourseRepository courseRepository;
+    private final UserSelectedCourseRepository enrollmentRepository;
+    private final CourseCatalogCache catalogCache;
+    private final CourseSearchIndex searchIndex;
+
+    public CourseReviewService(CourseReviewRepository reviewRepository,
+                               CourseRepository courseRepository,
+                               UserSelectedCourseRepository enrollmentRepository,
+                               CourseCatalogCache catalogCache,
+                               CourseSearchIndex searchIndex) {
+        this.reviewRepository = reviewRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+    }
+
+    @Transactional
+    public CourseReview submitReview(Long courseId, Long userId, Integer rating, String comment) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new NoSuchElementException("Course not found: " + courseId);
+        }
+        if (enrollmentRepository.findByUserIdAndCourseId(userId, courseId).isEmpty()) {
+            throw new IllegalStateException("Only students enrolled in this course can review it");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // row lock: a concurrent resubmission waits and then sees this one's rating
+        CourseReview review = reviewRepository.findForUpdate(courseId, userId).orElse(null);
+        int ratingDelta;
+        int countDelta;
+        if (review == null) {
+            review = new CourseReview();
+            review.setCourseId(courseId);
+            review.setUserId(userId);
+            review.setCreatedAt(now);
+            ratingDelta = rating;
+            countDelta = 1;
+        } else {
+            ratingDelta = rating - review.getRating();
+            countDelta = 0;
+        }
+        review.setRating(rating);
+        review.setComment(comment);
+        review.setUpdatedAt(now);
+        review = reviewRepository.saveAndFlush(review); // unique (course, user) is checked here
+
+        courseRepository.seedRatingSum(courseId);
+        courseRepository.applyReview(courseId, ratingDelta, countDelta);
+
+        // fresh row (not loaded before the bulk update); both apply after commit
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        catalogCache.invalidate();
+        searchIndex.upsert(CourseMapper.toDTO(course));
+        return review;
+    }
+
+    @Transactional(readOnly = true)
+    public CourseReviewPageDTO getReviews(Long courseId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                beforeId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        // fetch one extra row to know whether another page exists
+        List<CourseReviewDTO> items = reviewRepository.findPage(courseId, beforeId, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            String lastId = String.valueOf(items.get(items.size() - 1).getId());
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+        }
+        return new CourseReviewPageDTO(items, nextCursor);
+    }
+}
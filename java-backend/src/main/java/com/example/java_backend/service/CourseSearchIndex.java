@@ -0,0 +1,332 @@
+package com.example.java_backend.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.java_backend.dto.course.CourseDTO;
+import com.example.java_backend.dto.course.CourseSearchResult;
+import com.example.java_backend.mapper.CourseMapper;
+import com.example.java_backend.repository.CourseRepository;
+
+/**
+ * In-memory search over the course catalog. Every course occupies a slot; title and
+ * description tokens map to a BitSet of slots (sorted, so the last query word also
+ * matches as a prefix), level and mode values have precomputed facet BitSets, and the
+ * rating / participant orders are kept presorted. A query is a few BitSet ANDs plus a
+ * walk over the presorted order that stops once the requested page is filled.
+ *
+ * Course writes update the affected slot after commit; a periodic full rebuild picks up
+ * changes made on other instances.
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchIndex.class);
+
+    public enum Sort { RATING, PARTICIPANTS }
+
+    private final CourseRepository courseRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong updates = new AtomicLong();
+
+    // slot -> course (null = free slot)
+    private final List<CourseDTO> docs = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final NavigableMap<String, BitSet> postings = new TreeMap<>();
+    private final Map<String, BitSet> levels = new HashMap<>();
+    private final Map<String, BitSet> modes = new HashMap<>();
+    private final Map<String, String> facetLabels = new HashMap<>();
+    private double[] prices = new double[0];
+    private int[] byRating = new int[0];
+    private int[] byParticipants = new int[0];
+
+    public CourseSearchIndex(CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+    }
+
+    public CourseSearchResult search(String query, Collection<String> levelFilter, Collection<String> modeFilter,
+                                     Double minPrice, Double maxPrice, Sort sort, boolean ascending,
+                                     int page, int size) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = (BitSet) live.clone();
+            List<String> terms = tokenize(query);
+            for (int i = 0; i < terms.size() && !hits.isEmpty(); i++) {
+                hits.and(i == terms.size() - 1 ? prefixMatches(terms.get(i)) : exact(terms.get(i)));
+            }
+            applyFacet(hits, levels, levelFilter);
+            applyFacet(hits, modes, modeFilter);
+            if (minPrice != null || maxPrice != null) {
+                for (int slot = hits.nextSetBit(0); slot >= 0; slot = hits.nextSetBit(slot + 1)) {
+                    double price = prices[slot];
+                    if (Double.isNaN(price) || (minPrice != null && price < minPrice)
+                            || (maxPrice != null && price > maxPrice)) {
+                        hits.clear(slot);
+                    }
+                }
+            }
+
+            int total = hits.cardinality();
+            int[] order = sort == Sort.PARTICIPANTS ? byParticipants : byRating;
+            int skip = page * size;
+            List<CourseDTO> items = new ArrayList<>(Math.min(size, Math.max(0, total - skip)));
+            for (int i = 0; i < order.length && items.size() < size && skip < total; i++) {
+                int slot = order[ascending ? order.length - 1 - i : i];
+                if (hits.get(slot) && skip-- <= 0) {
+                    items.add(docs.get(slot));
+                }
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("level", facetCounts(hits, levels));
+            facets.put("mode", facetCounts(hits, modes));
+            return new CourseSearchResult(items, total, page, size, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Course created or updated; applied once the surrounding transaction commits
+    public void upsert(CourseDTO course) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                put(course);
+                resort();
+                updates.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long courseId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotById.remove(courseId);
+                if (slot != null) {
+                    clear(slot);
+                    resort();
+                }
+                updates.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.courses.search.rebuild-interval-ms:300000}",
+               fixedDelayString = "${app.courses.search.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        List<CourseDTO> courses;
+        int attempts = 0;
+        while (true) {
+            long before = updates.get();
+            courses = courseRepository.findAll().stream().map(CourseMapper::toDTO).toList();
+            lock.writeLock().lock();
+            try {
+                if (updates.get() != before && ++attempts < 3) {
+                    continue; // an update applied while loading may be newer than what we read
+                }
+                docs.clear();
+                slotById.clear();
+                live.clear();
+                postings.clear();
+                levels.clear();
+                modes.clear();
+                facetLabels.clear();
+                prices = new double[Math.max(16, courses.size())];
+                courses.forEach(this::put);
+                resort();
+                break;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Course search index rebuilt with {} courses", courses.size());
+    }
+
+    // ---- index maintenance (write lock held) ----
+
+    private void put(CourseDTO course) {
+        Integer existing = slotById.get(course.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            clear(slot);
+        } else {
+            slot = live.nextClearBit(0);
+            slotById.put(course.getId(), slot);
+        }
+        while (docs.size() <= slot) {
+            docs.add(null);
+        }
+        if (prices.length <= slot) {
+            prices = Arrays.copyOf(prices, Math.max(16, prices.length * 2));
+        }
+        docs.set(slot, course);
+        live.set(slot);
+        for (String token : tokens(course)) {
+            postings.computeIfAbsent(token, t -> new BitSet()).set(slot);
+        }
+        addFacet(levels, course.getLevel(), slot);
+        addFacet(modes, course.getMode(), slot);
+        prices[slot] = parsePrice(course.getPrice());
+    }
+
+    private void clear(int slot) {
+        CourseDTO old = docs.get(slot);
+        for (String token : tokens(old)) {
+            BitSet bits = postings.get(token);
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+        levels.values().forEach(bits -> bits.clear(slot));
+        modes.values().forEach(bits -> bits.clear(slot));
+        docs.set(slot, null);
+        live.clear(slot);
+    }
+
+    private void resort() {
+        byRating = sortedSlots(CourseDTO::getRating);
+        byParticipants = sortedSlots(CourseDTO::getTotalParticipants);
+    }
+
+    // Live slots, highest value first, ties by course id
+    private int[] sortedSlots(ToDoubleFunction<CourseDTO> key) {
+        return live.stream().boxed()
+                .sorted(Comparator.<Integer>comparingDouble(slot -> -key.applyAsDouble(docs.get(slot)))
+                        .thenComparing(slot -> docs.get(slot).getId()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private void addFacet(Map<String, BitSet> facet, String value, int slot) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String key = value.trim().toLowerCase(Locale.ROOT);
+        facetLabels.putIfAbsent(key, value.trim());
+        facet.computeIfAbsent(key, k -> new BitSet()).set(slot);
+    }
+
+    // ---- query helpers (read lock held) ----
+
+    private BitSet exact(String term) {
+        BitSet bits = postings.get(term);
+        return bits != null ? bits : new BitSet();
+    }
+
+    private BitSet prefixMatches(String prefix) {
+        BitSet union = new BitSet();
+        for (BitSet bits : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            union.or(bits);
+        }
+        return union;
+    }
+
+    private static void applyFacet(BitSet hits, Map<String, BitSet> facet, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        BitSet allowed = new BitSet();
+        for (String value : values) {
+            BitSet bits = facet.get(value.trim().toLowerCase(Locale.ROOT));
+            if (bits != null) {
+                allowed.or(bits);
+            }
+        }
+        hits.and(allowed);
+    }
+
+    private Map<String, Integer> facetCounts(BitSet hits, Map<String, BitSet> facet) {
+        Map<String, Integer> counts = new TreeMap<>();
+        facet.forEach((key, bits) -> {
+            BitSet both = (BitSet) bits.clone();
+            both.and(hits);
+            int n = both.cardinality();
+            if (n > 0) {
+                counts.put(facetLabels.get(key), n);
+            }
+        });
+        return counts;
+    }
+
+    private static List<String> tokens(CourseDTO course) {
+        List<String> tokens = new ArrayList<>(tokenize(course.getTitle()));
+        tokens.addAll(tokenize(course.getDescription()));
+        return tokens;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // "Free" -> 0, "$49.99" / "LKR 12,500" -> number, anything else -> unknown (NaN)
+    static double parsePrice(String price) {
+        if (price == null || price.isBlank()) {
+            return Double.NaN;
+        }
+        if (price.trim().equalsIgnoreCase("free")) {
+            return 0;
+        }
+        String digits = price.replaceAll("[^0-9.]", "");
+        try {
+            return digits.isEmpty() ? Double.NaN : new BigDecimal(digits).doubleValue();
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.java_backend.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.java_backend.dto.course.CourseDTO;
+import com.example.java_backend.dto.course.CourseSearchResult;
 import com.example.java_backend.mapper.CourseMapper;
 import com.example.java_backend.repository.CourseRepository;
 import com.example.java_backend.model.Course;
@@ -14,22 +14,49 @@ import com.example.java_backend.model.Course;
 @Service
 public class CourseService {
     private final CourseRepository courseRepository;
+    private final CourseCatalogCache catalogCache;
+    private final CourseSearchIndex searchIndex;
+    private final CourseEnrollmentCounter enrollmentCounter;
 
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, CourseCatalogCache catalogCache,
+                         CourseSearchIndex searchIndex, CourseEnrollmentCounter enrollmentCounter) {
         this.courseRepository = courseRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.enrollmentCounter = enrollmentCounter;
     }
 
+    // Served from the catalog snapshot (read-only list)
     public List<CourseDTO> getAllCourses() {
-        return courseRepository.findAll().stream()
-                .map(CourseMapper::toDTO)
-                .collect(Collectors.toList());
+        return catalogCache.get().courses();
+    }
+
+    // Catalog with its pre-encoded JSON/gzip bodies and ETags
+    public CourseCatalogCache.Snapshot getCatalogSnapshot() {
+        return catalogCache.get();
+    }
+
+    public CourseSearchResult searchCourses(String query, List<String> levels, List<String> modes,
+                                            Double minPrice, Double maxPrice, String sort, String order,
+                                            int page, int size) {
+        CourseSearchIndex.Sort sortBy = "participants".equalsIgnoreCase(sort) || "totalParticipants".equalsIgnoreCase(sort)
+                ? CourseSearchIndex.Sort.PARTICIPANTS : CourseSearchIndex.Sort.RATING;
+        return searchIndex.search(query, levels, modes, minPrice, maxPrice, sortBy,
+                "asc".equalsIgnoreCase(order), Math.max(0, page), Math.min(Math.max(size, 1), 100));
     }
 
     // 🔹 Create a new course
     public CourseDTO createCourse(CourseDTO dto) {
         Course course = CourseMapper.toEntity(dto);
+        course.setTotalParticipants(0); // counted from enrollments
+        course.setRating(0);            // aggregated from reviews
+        course.setReviews(0);
+        course.setRatingSum(0.0);
         Course savedCourse = courseRepository.save(course);
-        return CourseMapper.toDTO(savedCourse);
+        catalogCache.invalidate();
+        CourseDTO saved = CourseMapper.toDTO(savedCourse);
+        searchIndex.upsert(saved);
+        return saved;
     }
 
     // 🔹 Update an existing course
@@ -43,21 +70,24 @@ public class CourseService {
         course.setDescription(dto.getDescription());
         course.setImage(dto.getImage());
         course.setMode(dto.getMode());
-        course.setRating(dto.getRating());
-        course.setReviews(dto.getReviews());
         course.setPrice(dto.getPrice());
         course.setLevel(dto.getLevel());
-        course.setTotalParticipants(dto.getTotalParticipants());
         course.setCertificateProviders(dto.getCertificateProviders());
         course.setPromoCode(dto.getPromoCode());
         course.setDemoCertificate(dto.getDemoCertificate());
+        catalogCache.invalidate();
 
-        return CourseMapper.toDTO(course);
+        CourseDTO updated = CourseMapper.toDTO(course);
+        searchIndex.upsert(updated);
+        updated.setTotalParticipants(enrollmentCounter.participants(id, course.getTotalParticipants()));
+        return updated;
     }
 
     // 🔹 Delete a course
     public void deleteCourse(Long id) {
         courseRepository.deleteById(id);
+        catalogCache.invalidate();
+        searchIndex.remove(id);
     }
 
 }
@@ -0,0 +1,218 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.EmailOutbox;
+import com.example.java_backend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the email outbox. Due messages are sent in batches through one
+ * {@code JavaMailSender.send(SimpleMailMessage...)} call, which reuses a single SMTP
+ * connection for the whole batch. Messages the server refused are retried with
+ * exponential backoff and given up after max-attempts. Delivery is at-least-once:
+ * a crash between sending and recording the result resends that batch. Link tokens are
+ * substituted into the body only in the outgoing message and cleared once the row is
+ * SENT or FAILED; SENT rows are kept for sent-retention-hours and then purged in batches.
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String from;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long sentRetentionHours;
+
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer sendTimer;
+
+    public EmailDispatcher(EmailOutboxRepository outboxRepository,
+                           JavaMailSender mailSender,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.mail.outbox.from:${spring.mail.username:}}") String from,
+                           @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                           @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                           @Value("${app.mail.outbox.backoff-ms:30000}") long backoffMillis,
+                           @Value("${app.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMillis,
+                           @Value("${app.mail.outbox.sent-retention-hours:24}") long sentRetentionHours) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.sentRetentionHours = sentRetentionHours;
+
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox messages waiting to be sent (as of the last dispatch)")
+                .register(meterRegistry);
+        this.sent = Counter.builder("email.outbox.sent")
+                .description("Outbox messages accepted by the SMTP server")
+                .register(meterRegistry);
+        this.failed = Counter.builder("email.outbox.failed")
+                .description("Outbox messages given up after max attempts")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("email.outbox.send")
+                .description("Time to send one batch over a single SMTP connection")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+            pending.set(outboxRepository.countByStatus(EmailOutbox.Status.PENDING));
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed, will retry", e);
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        // by identity: SimpleMailMessage.equals would merge two rows with the same
+        // recipient, subject and body, and one refusal would mark both
+        Map<Object, String> errors = new IdentityHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            messages[i] = toMessage(batch.get(i));
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // per-message failures; an empty map means nothing was sent (e.g. connect failed)
+            if (e.getFailedMessages().isEmpty()) {
+                for (SimpleMailMessage m : messages) {
+                    errors.put(m, e.getMessage());
+                }
+            } else {
+                e.getFailedMessages().forEach((m, ex) -> errors.put(m, ex.getMessage()));
+            }
+        } catch (MailException e) {
+            for (SimpleMailMessage m : messages) {
+                errors.put(m, e.getMessage());
+            }
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < batch.size(); i++) {
+                EmailOutbox msg = batch.get(i);
+                String error = errors.get(messages[i]);
+                if (error == null) {
+                    msg.setStatus(EmailOutbox.Status.SENT);
+                    msg.setSentAt(now);
+                    msg.setLastError(null);
+                    msg.setLinkToken(null);
+                    sent.increment();
+                } else {
+                    recordFailure(msg, error, now);
+                }
+            }
+            outboxRepository.saveAll(batch);
+        });
+    }
+
+    private void recordFailure(EmailOutbox msg, String error, LocalDateTime now) {
+        msg.setAttempts(msg.getAttempts() + 1);
+        msg.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (msg.getAttempts() >= maxAttempts) {
+            msg.setStatus(EmailOutbox.Status.FAILED);
+            msg.setLinkToken(null);
+            failed.increment();
+            log.warn("Giving up on email {} to {} after {} attempts", msg.getId(), msg.getRecipient(), msg.getAttempts());
+            return;
+        }
+        long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(msg.getAttempts() - 1, 20));
+        msg.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox msg) {
+        SimpleMailMessage m = new SimpleMailMessage();
+        if (from != null && !from.isBlank()) {
+            m.setFrom(from);
+        }
+        m.setTo(msg.getRecipient());
+        m.setSubject(msg.getSubject());
+        m.setText(msg.getLinkToken() == null || msg.getBody() == null
+                ? msg.getBody()
+                : msg.getBody().replace(EmailOutbox.TOKEN_PLACEHOLDER, msg.getLinkToken()));
+        return m;
+    }
+
+    // SENT rows are only kept for troubleshooting; deleted a page at a time
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 15 * * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(sentRetentionHours);
+        List<Long> ids;
+        int purged = 0;
+        do {
+            ids = outboxRepository.findSentIdsBefore(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> page = ids;
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByIds(page));
+                purged += ids.size();
+            }
+        } while (ids.size() == PURGE_BATCH_SIZE);
+        if (purged > 0) {
+            log.info("Purged {} sent outbox messages older than {}h", purged, sentRetentionHours);
+        }
+    }
+
+    // One last drain so messages queued just before shutdown are not left waiting
+    @PreDestroy
+    public void shutdown() {
+        dispatch();
+    }
+}
@@ -1,22 +1,38 @@
 package com.example.java_backend.service;
 
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;  // ✅ this is from spring-boot-starter-mail
+import java.time.LocalDateTime;
+
 import org.springframework.stereotype.Service;
 
+import com.example.java_backend.model.EmailOutbox;
+import com.example.java_backend.repository.EmailOutboxRepository;
+
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
+
+    public EmailService(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
 
+    // Queues the message in the outbox (joins the caller's transaction, if any);
+    // EmailDispatcher delivers it in the background, so no SMTP work happens here.
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(to);
+        sendEmail(to, subject, text, null);
+    }
+
+    // For bodies carrying a secret link: the text holds EmailOutbox.TOKEN_PLACEHOLDER and the
+    // token sits in its own column until the dispatcher builds the link and clears it
+    public void sendEmail(String to, String subject, String text, String linkToken) {
+        EmailOutbox msg = new EmailOutbox();
+        msg.setRecipient(to);
         msg.setSubject(subject);
-        msg.setText(text);
-        mailSender.send(msg);
+        msg.setBody(text);
+        msg.setLinkToken(linkToken);
+        msg.setCreatedAt(LocalDateTime.now());
+        msg.setNextAttemptAt(msg.getCreatedAt());
+        outboxRepository.save(msg);
     }
 }
@@ -0,0 +1,133 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.EmailOutbox;
+import com.example.java_backend.model.EmailVerificationToken;
+import com.example.java_backend.model.User;
+import com.example.java_backend.repository.EmailVerificationTokenRepository;
+import com.example.java_backend.repository.UserRepository;
+
+/**
+ * Email verification tokens: issued at registration, looked up by the SHA-256 of the
+ * token through a unique index, consumed once, and swept in batches after they expire.
+ */
+@Service
+public class EmailVerificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailVerificationService.class);
+
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
+
+    private final String appBaseUrl;
+    private final long ttlHours;
+    private final int sweepBatchSize;
+
+    public EmailVerificationService(EmailVerificationTokenRepository tokenRepository,
+                                    UserRepository userRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    EmailService emailService,
+                                    @Value("${app.base-url}") String appBaseUrl,
+                                    @Value("${app.auth.verification.ttl-hours:48}") long ttlHours,
+                                    @Value("${app.auth.verification.sweep-batch-size:1000}") int sweepBatchSize) {
+        this.tokenRepository = tokenRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.emailService = emailService;
+        this.appBaseUrl = appBaseUrl;
+        this.ttlHours = ttlHours;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    // Issues a token and queues the verification email; joins the caller's transaction,
+    // so both commit together with the new user
+    @Transactional
+    public void sendVerificationEmail(Long userId, String fullName, String email) {
+        String raw = TokenHashing.newToken();
+        store(userId, TokenHashing.sha256Hex(raw));
+
+        // the raw token never goes into the stored body; the dispatcher fills it in at send time
+        String verificationLink = appBaseUrl + "/api/auth/verify?token=" + EmailOutbox.TOKEN_PLACEHOLDER;
+        String message = "Hi " + fullName + ",\n\nPlease verify your email using this link:\n"
+            + verificationLink + "\n\nThank you!";
+        emailService.sendEmail(email, "Verify your account", message, raw);
+    }
+
+    @Transactional
+    public void verify(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new RuntimeException("Invalid verification link.");
+        }
+        EmailVerificationToken token = tokenRepository.findByTokenHash(TokenHashing.sha256Hex(rawToken))
+                .orElseThrow(() -> new RuntimeException("Invalid verification link."));
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Verification link has expired.");
+        }
+        if (userRepository.markVerified(token.getUserId()) == 0) {
+            throw new RuntimeException("Invalid verification link.");
+        }
+        tokenRepository.deleteByUserId(token.getUserId());
+    }
+
+    @Scheduled(cron = "${app.auth.verification.sweep-cron:0 45 * * * *}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            ids = tokenRepository.findExpiredIds(now, PageRequest.of(0, sweepBatchSize));
+            if (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                deleted += transactionTemplate.execute(status -> tokenRepository.deleteByIds(batch));
+            }
+        } while (ids.size() == sweepBatchSize);
+        if (deleted > 0) {
+            log.info("Deleted {} expired email verification tokens", deleted);
+        }
+    }
+
+    // Tokens from before this table existed still sit in plain text on users; move them once
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyTokens() {
+        int migrated = 0;
+        List<User> users;
+        do {
+            users = transactionTemplate.execute(status -> {
+                List<User> page = userRepository.findWithLegacyVerificationToken(PageRequest.of(0, sweepBatchSize));
+                for (User user : page) {
+                    store(user.getId(), TokenHashing.sha256Hex(user.getVerificationToken()));
+                    user.setVerificationToken(null);
+                }
+                return page;
+            });
+            migrated += users.size();
+        } while (users.size() == sweepBatchSize);
+        if (migrated > 0) {
+            log.info("Moved {} email verification tokens into the hashed token table", migrated);
+        }
+    }
+
+    private void store(Long userId, String tokenHash) {
+        EmailVerificationToken token = new EmailVerificationToken();
+        token.setTokenHash(tokenHash);
+        token.setUserId(userId);
+        token.setCreatedAt(LocalDateTime.now());
+        token.setExpiresAt(token.getCreatedAt().plusHours(ttlHours));
+        tokenRepository.save(token);
+    }
+}
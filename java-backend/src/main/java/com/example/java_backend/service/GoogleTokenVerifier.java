@@ -0,0 +1,169 @@
+package com.example.java_backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken.Payload;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Shared Google ID-token verification.
+ * One pooled HTTP transport and one public-key manager live for the whole application,
+ * so Google's signing certificates are fetched once per Cache-Control max-age instead of
+ * per login; a scheduled task refreshes them ahead of expiry so no login ever waits on
+ * the fetch. A refresh loads into a fresh key manager that replaces the live one only once
+ * it succeeded, because the client library empties its key list before fetching and a
+ * failed fetch would otherwise leave logins with no keys at all.
+ * Tokens that already verified are remembered by SHA-256 for a short TTL
+ * (never past their own exp). The certificate URL and issuers are configurable, so a
+ * local key server can stand in for Google.
+ */
+@Service
+public class GoogleTokenVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenVerifier.class);
+
+    public record GoogleIdentity(String email, String name) {}
+
+    private record CachedIdentity(GoogleIdentity identity, long expiresAt) {}
+
+    private final ApacheHttpTransport transport;
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final String certsUrl;
+    private final String clientId;
+    private final List<String> issuers;
+
+    // replaced together after each successful refresh
+    private volatile GooglePublicKeysManager publicKeys;
+    private volatile GoogleIdTokenVerifier verifier;
+
+    private final Map<String, CachedIdentity> verified = new ConcurrentHashMap<>();
+    private final long verifiedTtlMillis;
+    private final int verifiedMaxEntries;
+    private final long refreshAheadMillis;
+
+    public GoogleTokenVerifier(@Value("${google.client-id}") String clientId,
+                               @Value("${google.certs-url:https://www.googleapis.com/oauth2/v1/certs}") String certsUrl,
+                               @Value("${google.issuers:accounts.google.com,https://accounts.google.com}") List<String> issuers,
+                               @Value("${google.http.max-connections:20}") int maxConnections,
+                               @Value("${google.verified-cache.ttl-ms:300000}") long verifiedTtlMillis,
+                               @Value("${google.verified-cache.max-entries:10000}") int verifiedMaxEntries,
+                               @Value("${google.certs.refresh-ahead-ms:600000}") long refreshAheadMillis) {
+        this.transport = new ApacheHttpTransport(ApacheHttpTransport.newDefaultHttpClientBuilder()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build());
+        this.certsUrl = certsUrl;
+        this.clientId = clientId;
+        this.issuers = issuers;
+        this.publicKeys = newKeysManager();
+        this.verifier = newVerifier(publicKeys);
+        this.verifiedTtlMillis = verifiedTtlMillis;
+        this.verifiedMaxEntries = verifiedMaxEntries;
+        this.refreshAheadMillis = refreshAheadMillis;
+    }
+
+    public GoogleIdentity verify(String idTokenString) {
+        if (idTokenString == null || idTokenString.isBlank()) {
+            throw new RuntimeException("Invalid ID token.");
+        }
+        String key = sha256(idTokenString);
+        long now = System.currentTimeMillis();
+        CachedIdentity cached = verified.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.identity();
+        }
+
+        GoogleIdToken idToken;
+        try {
+            idToken = verifier.verify(idTokenString);
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Google token verification failed: " + e.getMessage());
+        }
+        if (idToken == null) {
+            throw new RuntimeException("Invalid ID token.");
+        }
+
+        Payload payload = idToken.getPayload();
+        GoogleIdentity identity = new GoogleIdentity(payload.getEmail(), (String) payload.get("name"));
+        long expiresAt = now + verifiedTtlMillis;
+        if (payload.getExpirationTimeSeconds() != null) {
+            expiresAt = Math.min(expiresAt, payload.getExpirationTimeSeconds() * 1000);
+        }
+        if (verified.size() < verifiedMaxEntries) {
+            verified.put(key, new CachedIdentity(identity, expiresAt));
+        }
+        return identity;
+    }
+
+    // Keeps the signing keys warm (the first run also preloads them at startup)
+    @Scheduled(initialDelay = 0, fixedDelayString = "${google.certs.check-interval-ms:60000}")
+    public void refreshKeysIfStale() {
+        if (System.currentTimeMillis() + refreshAheadMillis < publicKeys.getExpirationTimeMilliseconds()) {
+            return;
+        }
+        GooglePublicKeysManager fresh = newKeysManager();
+        try {
+            fresh.refresh();
+        } catch (GeneralSecurityException | IOException e) {
+            log.warn("Refreshing Google signing certificates failed, will retry", e);
+            return;
+        }
+        verifier = newVerifier(fresh);
+        publicKeys = fresh;
+    }
+
+    private GooglePublicKeysManager newKeysManager() {
+        return new GooglePublicKeysManager.Builder(transport, jsonFactory)
+                .setPublicCertsEncodedUrl(certsUrl)
+                .build();
+    }
+
+    private GoogleIdTokenVerifier newVerifier(GooglePublicKeysManager keys) {
+        return new GoogleIdTokenVerifier.Builder(keys)
+                .setAudience(Collections.singletonList(clientId))
+                .setIssuers(issuers)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${google.verified-cache.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(c -> c.expiresAt() <= now);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        transport.shutdown();
+    }
+}
@@ -1,27 +1,92 @@
 package com.example.java_backend.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.java_backend.model.User;
+
+import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.spec.SecretKeySpec;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Identity carried by a verified token; handlers can use it without a user lookup
+    // jti is what logout revokes; tokens issued before it existed carry none
+    public record JwtPrincipal(Long userId, String email, String role, String jti, long expiresAtMillis) {}
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
 
-    public String generateToken(String email) {
+    // Key and parser are built once; the secret is base64, as it always was for signWith(alg, String)
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // Recently verified tokens, so repeat requests skip the HMAC and JSON parsing
+    private final Map<String, JwtPrincipal> verified = new ConcurrentHashMap<>();
+    private final int verifiedMaxEntries;
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.verified-cache.max-entries:10000}") int verifiedMaxEntries) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = new SecretKeySpec(Decoders.BASE64.decode(jwtSecret), SignatureAlgorithm.HS256.getJcaName());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedMaxEntries = verifiedMaxEntries;
+    }
+
+    public String generateToken(User user) {
         return Jwts.builder()
-                .setSubject(email)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getEmail())
+                .claim("userId", user.getId())
+                .claim("role", user.getRole())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
+
+    // Returns null when the token is malformed, badly signed or expired
+    public JwtPrincipal verify(String token) {
+        long now = System.currentTimeMillis();
+        JwtPrincipal cached = verified.get(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached;
+            }
+            verified.remove(token);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Number userId = claims.get("userId", Number.class);
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        JwtPrincipal principal = new JwtPrincipal(userId != null ? userId.longValue() : null,
+                claims.getSubject(), claims.get("role", String.class), claims.getId(), expiresAt);
+
+        if (verified.size() >= verifiedMaxEntries) {
+            verified.values().removeIf(p -> p.expiresAtMillis() <= now);
+        }
+        if (verified.size() < verifiedMaxEntries) {
+            verified.put(token, principal);
+        }
+        return principal;
+    }
 }
@@ -0,0 +1,167 @@
+package com.example.java_backend.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token-bucket limits on login attempts, per client address and per account (email),
+ * checked before the user lookup and the BCrypt comparison so a credential-stuffing
+ * burst is turned away cheaply.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it will be full again
+ * (the GCRA form of a token bucket): taking a token is one CAS, no locks. Buckets that
+ * have refilled completely carry no state and are dropped by a periodic sweep.
+ * Each table is capped at {@code max-keys}: a new key arriving at the cap triggers one
+ * eviction (refilled buckets first, then those closest to full, down to 90% of the cap);
+ * while that runs, other new keys are refused with 429 rather than growing the table or
+ * scanning it again. Limits are per instance.
+ */
+@Service
+public class LoginThrottle {
+
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+    private final int maxKeys;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final ConcurrentHashMap<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> accountBuckets = new ConcurrentHashMap<>();
+
+    private final Counter allowed;
+    private final Counter throttledByIp;
+    private final Counter throttledByAccount;
+    private final Counter evictions;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.security.login-throttle.ip.capacity:20}") int ipCapacity,
+                         @Value("${app.security.login-throttle.ip.per-minute:10}") int ipPerMinute,
+                         @Value("${app.security.login-throttle.account.capacity:5}") int accountCapacity,
+                         @Value("${app.security.login-throttle.account.per-minute:2}") int accountPerMinute,
+                         @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.ipLimit = new Limit(ipCapacity, ipPerMinute);
+        this.accountLimit = new Limit(accountCapacity, accountPerMinute);
+        this.maxKeys = maxKeys;
+
+        this.allowed = Counter.builder("auth.login.throttle")
+                .tag("result", "allowed")
+                .register(meterRegistry);
+        this.throttledByIp = Counter.builder("auth.login.throttle")
+                .tag("result", "throttled_ip")
+                .register(meterRegistry);
+        this.throttledByAccount = Counter.builder("auth.login.throttle")
+                .tag("result", "throttled_account")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("auth.login.throttle.evictions")
+                .description("Times a full bucket table was trimmed")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", () -> ipBuckets.size() + accountBuckets.size())
+                .description("Login throttle buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    // Throws LoginThrottledException (429) when either bucket is empty
+    public void checkLogin(String clientAddress, String email) {
+        long now = System.nanoTime();
+        long wait = take(ipBuckets, clientAddress, ipLimit, now);
+        if (wait > 0) {
+            throttledByIp.increment();
+            throw new LoginThrottledException(toRetryAfterSeconds(wait));
+        }
+        if (email != null) {
+            wait = take(accountBuckets, email.trim().toLowerCase(Locale.ROOT), accountLimit, now);
+            if (wait > 0) {
+                throttledByAccount.increment();
+                throw new LoginThrottledException(toRetryAfterSeconds(wait));
+            }
+        }
+        allowed.increment();
+    }
+
+    // Returns 0 if a token was taken, otherwise nanos until the next token
+    private long take(ConcurrentHashMap<String, AtomicLong> buckets, String key, Limit limit, long now) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            if (buckets.size() >= maxKeys && !makeRoom(buckets, now)) {
+                return TimeUnit.SECONDS.toNanos(1); // table full, another thread is trimming it
+            }
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + limit.intervalNanos;
+            long excess = next - now - limit.burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        evictFull(ipBuckets, now);
+        evictFull(accountBuckets, now);
+    }
+
+    private static void evictFull(ConcurrentHashMap<String, AtomicLong> buckets, long now) {
+        buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+    }
+
+    // One trim at a time; a trim frees 10% of the cap, so scans are amortized over many new keys
+    private boolean makeRoom(ConcurrentHashMap<String, AtomicLong> buckets, long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            if (buckets.size() < maxKeys) {
+                return true; // trimmed by whoever held the lock before us
+            }
+            evictFull(buckets, now);
+            int excess = buckets.size() - target;
+            if (excess > 0) {
+                // buckets that will be full soonest carry the least throttling state
+                long[] fullAts = buckets.values().stream().mapToLong(AtomicLong::get).toArray();
+                Arrays.sort(fullAts);
+                long threshold = fullAts[Math.min(excess, fullAts.length) - 1];
+                buckets.values().removeIf(fullAt -> fullAt.get() - threshold <= 0);
+            }
+            evictions.increment();
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + 999_999_999L));
+    }
+
+    private static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+
+        Limit(int capacity, int perMinute) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.burstNanos = intervalNanos * Math.max(1, capacity);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.java_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * BCrypt hashing on a dedicated, bounded pool.
+ * At most {@code workers} hashes run at once and at most {@code queue-capacity} wait;
+ * anything beyond that is rejected immediately with a 503 instead of tying up servlet
+ * threads and CPU, so cheap endpoints keep responding during login/registration bursts.
+ * The caller's servlet thread waits for its hash, so a request whose expected wait (work
+ * ahead of it times the mean hash time) already exceeds the timeout is rejected up front
+ * rather than parked until it times out. With nothing ahead, a request is always admitted.
+ * The work factor is calibrated once at startup to the target latency (unless pinned),
+ * and hashes created with a lower cost are reported by {@link #needsRehash}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final ThreadPoolExecutor pool;
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long timeoutMillis;
+    private final double startupHashMillis;
+    private final Timer hashTimer;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${app.security.bcrypt.workers:0}") int workers,
+                                  @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.security.bcrypt.timeout-ms:2000}") long timeoutMillis,
+                                  @Value("${app.security.bcrypt.cost:0}") int fixedCost,
+                                  @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+                                  @Value("${app.security.bcrypt.min-cost:10}") int minCost,
+                                  @Value("${app.security.bcrypt.max-cost:14}") int maxCost) {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "bcrypt-" + n.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.cost = fixedCost > 0 ? fixedCost : calibrate(targetMillis, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.startupHashMillis = measure(encoder);
+
+        Gauge.builder("auth.bcrypt.queue", pool, p -> p.getQueue().size())
+                .description("Password hashes waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.bcrypt.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes in progress")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.bcrypt.hash")
+                .description("Time spent in BCrypt encode/matches")
+                .register(meterRegistry);
+    }
+
+    // Highest cost whose single hash stays within the target; each +1 doubles the work
+    private static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration-warmup");
+        long start = System.nanoTime();
+        probe.encode("calibration-probe");
+        double millis = Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
+
+        int cost = minCost;
+        while (cost < maxCost && millis * 2 <= targetMillis) {
+            millis *= 2;
+            cost++;
+        }
+        log.info("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms)", cost, Math.round(millis), targetMillis);
+        return cost;
+    }
+
+    // Until the timer has samples, admission uses one hash measured at startup
+    private static double measure(BCryptPasswordEncoder encoder) {
+        encoder.encode("admission-warmup");
+        long start = System.nanoTime();
+        encoder.encode("admission-probe");
+        return Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) {
+            return false; // nothing to hash against (e.g. Google-only accounts)
+        }
+        return await(submit(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // True when the stored hash was made with a lower cost than the current one
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && !encodedPassword.isEmpty() && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Background re-hash; silently skipped while the pool is saturated (retried next login)
+    public CompletableFuture<String> encodeLater(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> timed(() -> encoder.encode(rawPassword)), pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Bulk hashing (imports): at most one hash per worker is in flight, so interactive
+    // logins still find room in the queue; waits instead of failing while the pool is full
+    public List<String> encodeAll(List<String> rawPasswords) {
+        Semaphore window = new Semaphore(pool.getCorePoolSize());
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String raw : rawPasswords) {
+                window.acquire();
+                CompletableFuture<String> future;
+                while (true) {
+                    try {
+                        future = CompletableFuture.supplyAsync(() -> timed(() -> encoder.encode(raw)), pool);
+                        break;
+                    } catch (RejectedExecutionException e) {
+                        Thread.sleep(20);
+                    }
+                }
+                future.whenComplete((hash, error) -> window.release());
+                futures.add(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new PasswordHashingBusyException("Password hashing interrupted");
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            hashes.add(future.join());
+        }
+        return hashes;
+    }
+
+    private <T> Future<T> submit(Supplier<T> work) {
+        if (pool.getActiveCount() + pool.getQueue().size() > 0 && expectedWaitMillis() > timeoutMillis) {
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        }
+        try {
+            return pool.submit(() -> timed(work));
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        }
+    }
+
+    // Hashes ahead of a new one (running + queued) spread over the workers, plus its own
+    private double expectedWaitMillis() {
+        double hashMillis = hashTimer.count() > 0 ? hashTimer.mean(TimeUnit.MILLISECONDS) : startupHashMillis;
+        int ahead = pool.getActiveCount() + pool.getQueue().size();
+        return (ahead / (double) pool.getCorePoolSize() + 1) * hashMillis;
+    }
+
+    private <T> T timed(Supplier<T> work) {
+        return hashTimer.record(work);
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
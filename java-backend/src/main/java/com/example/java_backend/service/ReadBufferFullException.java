@@ -0,0 +1,12 @@
+package com.example.java_backend.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Read buffer is at capacity because flushes are failing or falling behind; clients should retry shortly
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ReadBufferFullException extends RuntimeException {
+    public ReadBufferFullException(String message) {
+        super(message);
+    }
+}
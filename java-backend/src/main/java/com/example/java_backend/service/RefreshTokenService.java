@@ -0,0 +1,75 @@
+package com.example.java_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.java_backend.model.RefreshToken;
+import com.example.java_backend.repository.RefreshTokenRepository;
+
+@Service
+public class RefreshTokenService {
+
+    public record Rotation(Long userId, String refreshToken) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long refreshExpirationMillis;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration:2592000000}") long refreshExpirationMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshExpirationMillis = refreshExpirationMillis;
+    }
+
+    // New login: starts a new token family
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    private String issue(Long userId, String familyId) {
+        String raw = TokenHashing.newToken();
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(TokenHashing.sha256Hex(raw));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setCreatedAt(LocalDateTime.now());
+        token.setExpiresAt(token.getCreatedAt().plusNanos(refreshExpirationMillis * 1_000_000));
+        refreshTokenRepository.save(token);
+        return raw;
+    }
+
+    // Single use: the presented token is revoked and replaced by a new one in its family
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new InvalidTokenException("Missing refresh token");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(TokenHashing.sha256Hex(rawToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null) {
+            // an old token came back: assume it leaked and end the whole session
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidTokenException("Refresh token already used");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidTokenException("Refresh token expired");
+        }
+        current.setRevokedAt(now);
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(TokenHashing.sha256Hex(rawToken))
+                .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId(), LocalDateTime.now()));
+    }
+}
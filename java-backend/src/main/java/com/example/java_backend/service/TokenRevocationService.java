@@ -0,0 +1,108 @@
+package com.example.java_backend.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.java_backend.model.RevokedToken;
+import com.example.java_backend.repository.RefreshTokenRepository;
+import com.example.java_backend.repository.RevokedTokenRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Access-token revocation list. Every authenticated request asks {@link #isRevoked};
+ * an in-memory Bloom filter over the revoked jtis answers "no" for almost all of them
+ * without touching the database, and only possible hits are confirmed with a lookup.
+ * The filter is rebuilt from the table on a schedule (dropping expired entries and
+ * picking up revocations made by other instances); revocations made here are added
+ * to it immediately.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile TokenBloomFilter filter;
+    // revoked on this instance since the last rebuild started; re-applied after each swap
+    private final Set<String> revokedLocally = ConcurrentHashMap.newKeySet();
+
+    private final Counter databaseChecks;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revocation.expected-entries:10000}") int expectedEntries,
+                                  @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new TokenBloomFilter(expectedEntries, falsePositiveRate);
+        this.databaseChecks = Counter.builder("auth.revocation.db_checks")
+                .description("Revocation checks the Bloom filter could not answer alone")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        databaseChecks.increment();
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null) {
+            return; // tokens issued before jti existed cannot be revoked individually
+        }
+        RevokedToken token = new RevokedToken();
+        token.setJti(jti);
+        token.setRevokedAt(LocalDateTime.now());
+        token.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()));
+        revokedTokenRepository.save(token);
+        revokedLocally.add(jti);
+        filter.put(jti);
+    }
+
+    // The first run (at startup) loads the existing list
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.revocation.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        List<String> local = new ArrayList<>(revokedLocally);
+        List<String> jtis = revokedTokenRepository.findActiveJtis(LocalDateTime.now());
+        TokenBloomFilter next = new TokenBloomFilter(Math.max(expectedEntries, jtis.size() * 2), falsePositiveRate);
+        jtis.forEach(next::put);
+        local.forEach(next::put);
+        filter = next;
+        local.forEach(revokedLocally::remove);
+        revokedLocally.forEach(next::put); // revoked while we were rebuilding
+        log.debug("Rebuilt token revocation filter with {} entries", jtis.size());
+    }
+
+    @Scheduled(cron = "${jwt.revocation.prune-cron:0 15 * * * *}")
+    @Transactional
+    public void pruneExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        refreshTokenRepository.deleteExpired(now);
+    }
+}
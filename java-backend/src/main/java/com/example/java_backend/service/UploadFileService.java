@@ -0,0 +1,183 @@
+package com.example.java_backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Files under the uploads directory (certificates, course images) for the /uploads endpoint.
+ * Each file gets a strong ETag from a SHA-256 of its content, cached per path until its
+ * size or modification time changes. Pre-built ".br"/".gz" siblings are offered as
+ * encoded variants when they are at least as new as the original. Bodies go out through
+ * the connector's sendfile (zero-copy) when available, otherwise straight from the
+ * FileChannel, never via a whole-file heap buffer.
+ */
+@Service
+public class UploadFileService {
+
+    // Tomcat's NIO/NIO2 connectors advertise and consume these request attributes
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    /** A servable file: the original or one of its precompressed siblings. */
+    public record StoredFile(Path path, long length, long lastModified, String etag,
+                             MediaType mediaType, String contentEncoding) {}
+
+    private record Digest(long length, long lastModified, String hash) {}
+
+    private final Path root;
+    private final long sendfileMinBytes;
+    private final int maxDigests;
+    private final Map<Path, Digest> digests = new ConcurrentHashMap<>();
+
+    public UploadFileService(@Value("${app.uploads.dir:uploads}") String dir,
+                             @Value("${app.uploads.sendfile-min-bytes:49152}") long sendfileMinBytes,
+                             @Value("${app.uploads.etag-cache.max-entries:10000}") int maxDigests) {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        this.sendfileMinBytes = sendfileMinBytes;
+        this.maxDigests = maxDigests;
+    }
+
+    // Regular file below the uploads root, or empty for anything else (missing, directory, "..")
+    public Optional<StoredFile> find(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty() || relativePath.indexOf('\0') >= 0
+                || relativePath.indexOf('\\') >= 0) {
+            return Optional.empty();
+        }
+        Path path = root.resolve(relativePath).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            return Optional.empty();
+        }
+        for (Path part : root.relativize(path)) {
+            if (part.toString().startsWith(".")) {
+                return Optional.empty(); // dot files, including in-progress uploads
+            }
+        }
+        BasicFileAttributes attrs = attributes(path);
+        if (attrs == null) {
+            return Optional.empty();
+        }
+        long length = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        String etag = "\"" + hash(path, length, lastModified) + "\"";
+        MediaType mediaType = MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return Optional.of(new StoredFile(path, length, lastModified, etag, mediaType, null));
+    }
+
+    // Best precompressed sibling the client accepts (br before gzip), or the file itself
+    public StoredFile negotiate(StoredFile file, String acceptEncoding) {
+        if (acceptEncoding == null || file.contentEncoding() != null) {
+            return file;
+        }
+        for (String encoding : new String[] {"br", "gzip"}) {
+            if (!AcceptEncoding.accepts(acceptEncoding, encoding)) {
+                continue;
+            }
+            Path sibling = file.path().resolveSibling(file.path().getFileName() + (encoding.equals("br") ? ".br" : ".gz"));
+            BasicFileAttributes attrs = attributes(sibling);
+            // a sibling older than the original was built from a previous version
+            if (attrs != null && attrs.lastModifiedTime().toMillis() >= file.lastModified()) {
+                String etag = file.etag().substring(0, file.etag().length() - 1) + "-" + encoding + "\"";
+                return new StoredFile(sibling, attrs.size(), file.lastModified(), etag, file.mediaType(), encoding);
+            }
+        }
+        return file;
+    }
+
+    // Writes bytes [start, start + count) of the file; headers must already be set
+    public void transfer(StoredFile file, long start, long count,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+        if (count == 0) {
+            return;
+        }
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // the connector streams the file from the kernel page cache once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.path().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    break; // file shrank underneath us
+                }
+                position += sent;
+            }
+            out.flush();
+        }
+    }
+
+    private String hash(Path path, long length, long lastModified) {
+        Digest cached = digests.get(path);
+        if (cached != null && cached.length() == length && cached.lastModified() == lastModified) {
+            return cached.hash();
+        }
+        String hash = sha256(path);
+        if (digests.size() >= maxDigests) {
+            digests.clear(); // rebuilt lazily; cheaper than tracking recency for a rare case
+        }
+        digests.put(path, new Digest(length, lastModified, hash));
+        return hash;
+    }
+
+    private static String sha256(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            // 128 bits is plenty to tell versions of one file apart
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.isRegularFile() ? attrs : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.java_backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.dto.admin.UserImportReport;
+import com.example.java_backend.repository.UserRepository;
+
+/**
+ * Admin bulk import of users from CSV (header row with fullName, email, password and
+ * optionally batchId, studentId). The file is read as a stream and processed in chunks:
+ * one set query finds emails that are already taken, passwords are hashed in parallel on
+ * the BCrypt pool, users are inserted with one JDBC batch, and verification emails go to
+ * the outbox in the same transaction. Each chunk commits on its own; rows that fail
+ * validation are reported and skipped without affecting the others. A CSV syntax error
+ * ends the import there: it is reported as an error row and the chunks already
+ * committed stay in the returned report.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (full_name, email, password, role, account_status, is_verified, batch_id, student_id) "
+            + "VALUES (?, ?, ?, 'USER', 'ACTIVE', false, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashing;
+    private final EmailVerificationService emailVerificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int maxRows;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordHashingService passwordHashing,
+                             EmailVerificationService emailVerificationService,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${app.users.import.chunk-size:500}") int chunkSize,
+                             @Value("${app.users.import.max-rows:10000}") int maxRows) {
+        this.userRepository = userRepository;
+        this.passwordHashing = passwordHashing;
+        this.emailVerificationService = emailVerificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+    }
+
+    private record ImportRow(long line, String fullName, String email, String password,
+                             String batchId, String studentId) {}
+
+    // defaultBatchId applies to rows without a batchId column/value
+    public UserImportReport importCsv(InputStream csv, String defaultBatchId) throws IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("fullname", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain fullName, email and password");
+            }
+        }
+
+        UserImportReport report = new UserImportReport();
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        List<String> record;
+        long rows = 0;
+        while ((record = nextRecord(reader, report)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // blank line
+            }
+            if (++rows > maxRows) {
+                report.failed(reader.getRecordLine(), null,
+                        "Import is limited to " + maxRows + " rows; this and the following rows were skipped");
+                break;
+            }
+            ImportRow row = new ImportRow(reader.getRecordLine(),
+                    field(record, columns, "fullname"),
+                    field(record, columns, "email"),
+                    rawField(record, columns, "password"),
+                    orDefault(field(record, columns, "batchid"), defaultBatchId),
+                    field(record, columns, "studentid"));
+            String error = validate(row, seenEmails);
+            if (error != null) {
+                report.failed(row.line(), row.email(), error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        report.getRows().sort(Comparator.comparingLong(UserImportReport.Row::getLine));
+        log.info("User import finished: {} created, {} failed", report.getCreated(), report.getFailed());
+        return report;
+    }
+
+    // Syntax errors past the header become a report row; earlier chunks have committed already
+    private static List<String> nextRecord(CsvReader reader, UserImportReport report) throws IOException {
+        try {
+            return reader.next();
+        } catch (CsvSyntaxException e) {
+            report.failed(e.line, null, e.getMessage() + "; this and the following rows were skipped");
+            return null;
+        }
+    }
+
+    private static String validate(ImportRow row, Set<String> seenEmails) {
+        if (row.email() == null || !row.email().contains("@")) {
+            return "Invalid email";
+        }
+        if (row.fullName() == null) {
+            return "Full name is required";
+        }
+        if (row.password() == null) {
+            return "Password is required";
+        }
+        if (!seenEmails.add(row.email().toLowerCase(Locale.ROOT))) {
+            return "Duplicate email in file";
+        }
+        return null;
+    }
+
+    private void importChunk(List<ImportRow> chunk, UserImportReport report) {
+        List<ImportRow> fresh = withoutExisting(chunk, report);
+        if (fresh.isEmpty()) {
+            return;
+        }
+        List<String> hashes = passwordHashing.encodeAll(fresh.stream().map(ImportRow::password).toList());
+
+        Map<String, Long> ids;
+        try {
+            ids = insert(fresh, hashes);
+        } catch (DuplicateKeyException e) {
+            // someone registered one of these emails since the check; the batch rolled back, re-check and retry once
+            List<ImportRow> retry = withoutExisting(fresh, report);
+            if (retry.isEmpty()) {
+                return;
+            }
+            List<String> retryHashes = new ArrayList<>(retry.size());
+            for (ImportRow row : retry) {
+                retryHashes.add(hashes.get(fresh.indexOf(row)));
+            }
+            fresh = retry;
+            try {
+                ids = insert(fresh, retryHashes);
+            } catch (DuplicateKeyException again) {
+                // lost the race twice; the chunk rolled back again, so none of its rows exist
+                for (ImportRow row : fresh) {
+                    report.failed(row.line(), row.email(),
+                            "Not imported: an email in this chunk was registered during the import; retry this row");
+                }
+                return;
+            }
+        }
+        for (ImportRow row : fresh) {
+            report.created(row.line(), row.email(), ids.get(row.email().toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    private List<ImportRow> withoutExisting(List<ImportRow> rows, UserImportReport report) {
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(rows.stream().map(ImportRow::email).toList())) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<ImportRow> fresh = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (existing.contains(row.email().toLowerCase(Locale.ROOT))) {
+                report.failed(row.line(), row.email(), "Email already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    // One transaction per chunk: batch insert, id lookup, verification tokens + outbox emails
+    private Map<String, Long> insert(List<ImportRow> rows, List<String> hashes) {
+        return transactionTemplate.execute(status -> {
+            List<Object[]> args = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ImportRow row = rows.get(i);
+                args.add(new Object[] { row.fullName(), row.email(), hashes.get(i), row.batchId(), row.studentId() });
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER, args);
+
+            Map<String, Long> ids = new LinkedHashMap<>();
+            for (Object[] idAndEmail : userRepository.findIdsByEmails(rows.stream().map(ImportRow::email).toList())) {
+                ids.put(((String) idAndEmail[1]).toLowerCase(Locale.ROOT), (Long) idAndEmail[0]);
+            }
+            for (ImportRow row : rows) {
+                Long userId = ids.get(row.email().toLowerCase(Locale.ROOT));
+                emailVerificationService.sendVerificationEmail(userId, row.fullName(), row.email());
+            }
+            return ids;
+        });
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        String value = rawField(record, columns, name);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Passwords are taken as written: leading/trailing spaces are part of them
+    private static String rawField(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : (fallback != null && !fallback.isBlank() ? fallback.trim() : null);
+    }
+
+    private static final class CsvSyntaxException extends IllegalArgumentException {
+        private final long line;
+
+        CsvSyntaxException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+    }
+
+    // RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks
+    private static final class CsvReader {
+        private final Reader in;
+        private int pushback = -2;
+        private long line = 1;
+        private long recordLine;
+
+        CsvReader(Reader in) {
+            this.in = new BufferedReader(in);
+        }
+
+        long getRecordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new CsvSyntaxException(recordLine, "Unterminated quoted field at line " + recordLine);
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pushback = next;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pushback != -2) {
+                c = pushback;
+                pushback = -2;
+            } else {
+                c = in.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+    }
+}
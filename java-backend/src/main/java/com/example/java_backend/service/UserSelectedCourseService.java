@@ -1,5 +1,8 @@
 package com.example.java_backend.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,13 +21,19 @@ public class UserSelectedCourseService {
     private final UserSelectedCourseRepository userSelectedCourseRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final CourseEnrollmentCounter enrollmentCounter;
+    private final CertificateStorageService certificateStorage;
 
     public UserSelectedCourseService(UserSelectedCourseRepository userSelectedCourseRepository,
                                      UserRepository userRepository,
-                                     CourseRepository courseRepository) {
+                                     CourseRepository courseRepository,
+                                     CourseEnrollmentCounter enrollmentCounter,
+                                     CertificateStorageService certificateStorage) {
         this.userSelectedCourseRepository = userSelectedCourseRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
+        this.enrollmentCounter = enrollmentCounter;
+        this.certificateStorage = certificateStorage;
     }
 
     
@@ -55,7 +64,9 @@ public UserSelectedCourse bookCourse(UserSelectedCourseRequest request) {
     userSelectedCourse.setCertificateUrl(request.getCertificateUrl());
     userSelectedCourse.setEnrolledDate(request.getEnrolledDate());
 
-    return userSelectedCourseRepository.save(userSelectedCourse);
+    UserSelectedCourse saved = userSelectedCourseRepository.save(userSelectedCourse);
+    enrollmentCounter.enrolled(course); // counted once this transaction commits
+    return saved;
 }
 
 // ✅ Unenroll user from a course
@@ -64,6 +75,7 @@ public UserSelectedCourse bookCourse(UserSelectedCourseRequest request) {
         return userSelectedCourseRepository.findByUserIdAndCourseId(userId, courseId)
                 .map(enrollment -> {
                     userSelectedCourseRepository.delete(enrollment);
+                    enrollmentCounter.unenrolled(enrollment.getCourse());
                     return true;
                 })
                 .orElse(false);
@@ -79,6 +91,20 @@ public UserSelectedCourse updateCertificateUrl(Long enrollmentId, String certifi
             .orElseThrow(() -> new RuntimeException("Enrollment not found"));
 }
 
+    // Streams the file into content-addressed storage (outside any transaction), then
+    // points the enrollment at it with a single UPDATE
+    public UserSelectedCourse uploadCertificate(Long enrollmentId, InputStream content, long size) throws IOException {
+        if (!userSelectedCourseRepository.existsById(enrollmentId)) {
+            throw new RuntimeException("Enrollment not found");
+        }
+        String url = certificateStorage.store(content, size).url();
+        if (userSelectedCourseRepository.updateCertificateUrl(enrollmentId, url) == 0) {
+            throw new RuntimeException("Enrollment not found");
+        }
+        return userSelectedCourseRepository.findById(enrollmentId)
+                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
+    }
+
 }
 
 
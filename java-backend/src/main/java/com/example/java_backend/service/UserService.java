@@ -22,6 +22,10 @@ public class UserService {
         return userRepository.findByEmail(email).map(UserMapper::toDTO);
     }
 
+    public Optional<UserDTO> getUserById(Long id) {
+        return userRepository.findById(id).map(UserMapper::toDTO);
+    }
+
     public UserDTO updateUser(Long id, UpdateUserDTO updatedUser) {
         return userRepository.findById(id).map(user -> {
             user.setFullName(updatedUser.getFullName());
@@ -0,0 +1,72 @@
+package com.example.java_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class MultipartSizeFilterTest {
+
+    private static final String USER_IMPORT = "/api/admin/users/import";
+    private static final String CERTIFICATE_IMPORT = "/api/admin/courses/42/certificates/import";
+
+    // 100 bytes for multipart requests in general, 1000 for the certificate zip import
+    private final MultipartSizeFilter filter = new MultipartSizeFilter(100, 1000);
+
+    private MockFilterChain chain;
+
+    private MockHttpServletResponse post(String uri, String contentType, byte[] body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType(contentType);
+        if (body != null) {
+            request.setContent(body);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void multipartOverTheLimitIsRefusedBeforeTheBodyIsRead() throws Exception {
+        MockHttpServletResponse response = post(USER_IMPORT, "multipart/form-data; boundary=x", new byte[101]);
+
+        assertEquals(413, response.getStatus());
+        assertEquals("close", response.getHeader("Connection"));
+        assertNull(chain.getRequest());
+
+        post(USER_IMPORT, "multipart/form-data; boundary=x", new byte[100]);
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void certificateImportHasItsOwnLimit() throws Exception {
+        post(CERTIFICATE_IMPORT, "multipart/form-data; boundary=x", new byte[1000]);
+        assertNotNull(chain.getRequest());
+
+        assertEquals(413, post(CERTIFICATE_IMPORT, "multipart/form-data; boundary=x", new byte[1001]).getStatus());
+        // only that exact path
+        assertEquals(413, post(CERTIFICATE_IMPORT + "/x", "multipart/form-data; boundary=x", new byte[101]).getStatus());
+    }
+
+    @Test
+    void multipartWithoutContentLengthIsRefused() throws Exception {
+        MockHttpServletResponse response = post(USER_IMPORT, "Multipart/Form-Data; boundary=x", null);
+
+        assertEquals(411, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void otherRequestsAreNotLimitedHere() throws Exception {
+        post("/api/courses/1/certificate", "application/pdf", new byte[5000]);
+        assertNotNull(chain.getRequest());
+
+        post(USER_IMPORT, null, null);
+        assertNotNull(chain.getRequest());
+    }
+}
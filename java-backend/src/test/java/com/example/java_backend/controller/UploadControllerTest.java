@@ -0,0 +1,123 @@
+package com.example.java_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.java_backend.service.UploadFileService;
+import com.example.java_backend.service.UploadFileService.StoredFile;
+
+// Range and If-Range handling of GET /uploads/**; the body transfer itself is mocked
+class UploadControllerTest {
+
+    private static final long LENGTH = 1000;
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+    private static final StoredFile FILE = new StoredFile(Path.of("uploads/certificates/c.pdf"), LENGTH,
+            LAST_MODIFIED, "\"abc\"", MediaType.APPLICATION_PDF, null);
+
+    private final UploadFileService files = mock(UploadFileService.class);
+    private final UploadController controller = new UploadController(files, 86400);
+
+    // start and count of the last transfer, or null if none happened
+    private long[] sent;
+
+    @BeforeEach
+    void fakeFiles() throws Exception {
+        when(files.find("certificates/c.pdf")).thenReturn(Optional.of(FILE));
+        when(files.negotiate(eq(FILE), any())).thenReturn(FILE);
+        doAnswer(inv -> {
+            sent = new long[] { inv.getArgument(1), inv.getArgument(2) };
+            return null;
+        }).when(files).transfer(eq(FILE), anyLong(), anyLong(), any(), any());
+    }
+
+    private MockHttpServletResponse get(String range, String ifRange) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/certificates/c.pdf");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sent = null;
+        controller.getUpload(request, response);
+        return response;
+    }
+
+    private static String httpDate(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(millis).atOffset(ZoneOffset.UTC));
+    }
+
+    private void assertPartial(MockHttpServletResponse response, long start, long count) {
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes " + start + "-" + (start + count - 1) + "/" + LENGTH,
+                response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(start, sent[0]);
+        assertEquals(count, sent[1]);
+    }
+
+    private void assertWhole(MockHttpServletResponse response) {
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, sent[0]);
+        assertEquals(LENGTH, sent[1]);
+    }
+
+    @Test
+    void singleRangesAreServedAsPartialContent() throws Exception {
+        assertPartial(get("bytes=0-99", null), 0, 100);
+        assertPartial(get("bytes=900-", null), 900, 100);
+        assertPartial(get("bytes=-300", null), 700, 300);
+        // clamped to the file
+        assertPartial(get("bytes=500-5000", null), 500, 500);
+        assertPartial(get("bytes=-5000", null), 0, LENGTH);
+    }
+
+    @Test
+    void rangesPastTheEndAreUnsatisfiable() throws Exception {
+        for (String range : new String[] { "bytes=1000-", "bytes=2000-2100", "bytes=-0" }) {
+            MockHttpServletResponse response = get(range, null);
+            assertEquals(416, response.getStatus(), range);
+            assertEquals("bytes */" + LENGTH, response.getHeader(HttpHeaders.CONTENT_RANGE));
+            assertNull(sent);
+        }
+    }
+
+    @Test
+    void malformedAndMultipleRangesSendTheWholeFile() throws Exception {
+        for (String range : new String[] { "bytes=0-99,200-299", "bytes=99-0", "bytes=abc", "items=0-1", "bytes=5" }) {
+            assertWhole(get(range, null));
+        }
+    }
+
+    @Test
+    void ifRangeOnlyAppliesTheRangeToTheSameVersion() throws Exception {
+        assertPartial(get("bytes=0-99", "\"abc\""), 0, 100);
+        assertWhole(get("bytes=0-99", "\"changed\""));
+        // weak tags never match a range request
+        assertWhole(get("bytes=0-99", "W/\"abc\""));
+
+        assertPartial(get("bytes=0-99", httpDate(LAST_MODIFIED)), 0, 100);
+        assertWhole(get("bytes=0-99", httpDate(LAST_MODIFIED - 60_000)));
+        assertWhole(get("bytes=0-99", "not a date"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.java_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.java_backend.service.AnnouncementReadBuffer;
+import com.example.java_backend.service.AnnouncementService;
+import com.example.java_backend.service.AnnouncementStreamService;
+import com.example.java_backend.service.JwtService.JwtPrincipal;
+
+// The per-user announcement endpoints only serve the user the token belongs to
+class UserAnnouncementControllerTest {
+
+    private static final JwtPrincipal USER_7 = new JwtPrincipal(7L, "u7@example.com", "USER", "jti", Long.MAX_VALUE);
+    private static final JwtPrincipal USER_8 = new JwtPrincipal(8L, "u8@example.com", "USER", "jti", Long.MAX_VALUE);
+
+    private final AnnouncementService announcements = mock(AnnouncementService.class);
+    private final AnnouncementReadBuffer readBuffer = mock(AnnouncementReadBuffer.class);
+    private final AnnouncementStreamService streams = mock(AnnouncementStreamService.class);
+    private final UserAnnouncementController controller =
+            new UserAnnouncementController(announcements, readBuffer, streams);
+
+    // each guarded endpoint, called for user 7 with the given token
+    private List<Executable> endpoints(JwtPrincipal principal) {
+        return List.of(
+                () -> controller.unreadCount(7L, principal),
+                () -> controller.getInbox(7L, null, null, 20, principal),
+                () -> controller.stream(7L, principal),
+                () -> controller.markRead(7L, 3L, principal),
+                () -> controller.markAllRead(7L, principal));
+    }
+
+    private static void assertStatus(HttpStatus status, Executable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call);
+        assertEquals(status, e.getStatusCode());
+    }
+
+    @Test
+    void missingTokenIsUnauthorized() {
+        endpoints(null).forEach(call -> assertStatus(HttpStatus.UNAUTHORIZED, call));
+        verifyNoInteractions(announcements, readBuffer, streams);
+    }
+
+    @Test
+    void anotherUsersTokenIsForbidden() {
+        endpoints(USER_8).forEach(call -> assertStatus(HttpStatus.FORBIDDEN, call));
+        assertStatus(HttpStatus.FORBIDDEN, () -> controller.getForUser(7L, USER_8));
+        verifyNoInteractions(announcements, readBuffer, streams);
+    }
+
+    @Test
+    void ownTokenIsServed() throws Throwable {
+        for (Executable call : endpoints(USER_7)) {
+            call.execute();
+        }
+        controller.getForUser(7L, USER_7);
+
+        verify(announcements).getUnreadCount(7L);
+        verify(announcements).getInboxPage(7L, null, null, 20);
+        verify(streams).subscribe(7L);
+        verify(readBuffer).markRead(7L, 3L);
+        verify(readBuffer).markAllRead(7L);
+        verify(announcements).getAnnouncementsForUser(7L);
+    }
+
+    @Test
+    void fullListStillAcceptsCallsWithoutAToken() {
+        controller.getForUser(7L, null);
+
+        verify(announcements).getAnnouncementsForUser(7L);
+        verify(readBuffer, never()).markAllRead(anyLong());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.java_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.java_backend.service.UserService;
+
+class UserControllerTest {
+
+    private final UserService users = mock(UserService.class);
+    private final UserController controller = new UserController(users);
+
+    @Test
+    void currentUserRequiresAToken() {
+        assertEquals(401, controller.getCurrentUser(null).getStatusCode().value());
+        verifyNoInteractions(users);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.java_backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// The native recount statement, run against an in-memory H2 in MySQL mode
+class CourseRepositoryTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void createTables() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:recount" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE course (id BIGINT PRIMARY KEY, total_participants INT, participants_epoch INT)");
+        jdbc.execute("CREATE TABLE user_selected_courses (id BIGINT PRIMARY KEY, user_id BIGINT, course_id BIGINT)");
+    }
+
+    private static String nativeQuery(String method) throws NoSuchMethodException {
+        return CourseRepository.class.getMethod(method).getAnnotation(Query.class).value();
+    }
+
+    @Test
+    void recountReplacesDriftedCountsAndStartsANewEpoch() throws Exception {
+        jdbc.update("INSERT INTO course VALUES (1, 777, 3), (2, 0, 0), (3, 4, 1)");
+        for (long user = 1; user <= 5; user++) {
+            jdbc.update("INSERT INTO user_selected_courses VALUES (?, ?, 1)", user, user);
+        }
+        jdbc.update("INSERT INTO user_selected_courses VALUES (6, 1, 2)");
+
+        int updated = jdbc.update(nativeQuery("recountParticipants"));
+
+        assertEquals(3, updated);
+        assertEquals(List.of(5, 1, 0),
+                jdbc.queryForList("SELECT total_participants FROM course ORDER BY id", Integer.class));
+        assertEquals(List.of(4, 1, 2),
+                jdbc.queryForList("SELECT participants_epoch FROM course ORDER BY id", Integer.class));
+    }
+}
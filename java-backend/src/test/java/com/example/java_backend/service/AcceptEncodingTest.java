@@ -0,0 +1,29 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AcceptEncodingTest {
+
+    @Test
+    void listedEncodingIsAccepted() {
+        assertTrue(AcceptEncoding.accepts("gzip, deflate, br", "gzip"));
+        assertTrue(AcceptEncoding.accepts("br;q=1.0, GZIP;q=0.5", "gzip"));
+    }
+
+    @Test
+    void zeroQualityRefusesEncoding() {
+        assertFalse(AcceptEncoding.accepts("gzip;q=0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("br, gzip; q=0.0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip;q=bogus", "gzip"));
+    }
+
+    @Test
+    void missingOrOtherEncodingsAreNotAccepted() {
+        assertFalse(AcceptEncoding.accepts(null, "gzip"));
+        assertFalse(AcceptEncoding.accepts("identity", "gzip"));
+        assertFalse(AcceptEncoding.accepts("x-gzip", "gzip"));
+    }
+}
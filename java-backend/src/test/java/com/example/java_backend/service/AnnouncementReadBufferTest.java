@@ -0,0 +1,144 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.AnnouncementRecipient;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnnouncementReadBufferTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final AnnouncementRecipientRepository recipients = mock(AnnouncementRecipientRepository.class);
+    private final UserRepository users = mock(UserRepository.class);
+
+    private AnnouncementReadBuffer buffer(int capacity, int maxAttempts) {
+        return buffer(1000, capacity, maxAttempts);
+    }
+
+    private AnnouncementReadBuffer buffer(int maxSize, int capacity, int maxAttempts) {
+        return new AnnouncementReadBuffer(recipients, users, mock(AnnouncementUnreadCounter.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                meters, maxSize, capacity, maxAttempts);
+    }
+
+    private double counter(String name) {
+        return meters.get(name).counter().count();
+    }
+
+    @Test
+    void refusesNewReceiptsAtCapacity() {
+        AnnouncementReadBuffer buffer = buffer(3, 5);
+        buffer.markRead(1L, 10L);
+        buffer.markRead(1L, 11L);
+        buffer.markAllRead(2L);
+
+        assertThrows(ReadBufferFullException.class, () -> buffer.markRead(3L, 10L));
+        // a receipt that is already pending collapses and is not refused
+        buffer.markRead(1L, 10L);
+
+        assertEquals(3, buffer.depth());
+        assertEquals(1.0, counter("announcements.read_buffer.rejected"));
+        buffer.shutdown();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        AnnouncementReadBuffer buffer = buffer(50, 5);
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long userId = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long a = 0; a < 20; a++) {
+                    try {
+                        buffer.markRead(userId, a);
+                    } catch (ReadBufferFullException e) {
+                        refused.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(50, buffer.depth());
+        assertEquals(160 - 50, refused.get());
+        buffer.shutdown();
+    }
+
+    @Test
+    void markAllReadMovesTheWatermarkInsteadOfWritingRows() {
+        AnnouncementReadBuffer buffer = buffer(100, 5);
+        LocalDateTime before = LocalDateTime.now();
+        buffer.markAllRead(7L);
+        buffer.flush();
+
+        verify(recipients).updateStatusForUsers(
+                List.of(7L), AnnouncementRecipient.Status.UNREAD, AnnouncementRecipient.Status.READ);
+        verify(users).advanceAnnouncementsReadBefore(eq(List.of(7L)),
+                argThat(at -> !at.isBefore(before)));
+        assertEquals(0, buffer.depth());
+        buffer.shutdown();
+    }
+
+    @Test
+    void receiptsAfterShutdownAreNotScheduled() {
+        AnnouncementReadBuffer buffer = buffer(1, 100, 5);
+        buffer.shutdown();
+
+        assertDoesNotThrow(() -> buffer.markRead(1L, 10L));
+        assertDoesNotThrow(() -> buffer.markRead(1L, 11L));
+        assertTrue(buffer.depth() >= 1);
+    }
+
+    @Test
+    void failingEntriesAreDroppedAfterMaxAttempts() {
+        when(recipients.updateStatusForUsers(anyList(), any(), any()))
+                .thenThrow(new IllegalStateException("database down"));
+        AnnouncementReadBuffer buffer = buffer(100, 3);
+        buffer.markAllRead(7L);
+
+        buffer.flush();
+        buffer.flush();
+        assertEquals(1, buffer.depth());
+        assertEquals(0.0, counter("announcements.read_buffer.dropped"));
+
+        buffer.flush();
+        assertEquals(0, buffer.depth());
+        assertEquals(1.0, counter("announcements.read_buffer.dropped"));
+        buffer.shutdown();
+    }
+}
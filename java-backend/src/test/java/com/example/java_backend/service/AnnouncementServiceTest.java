@@ -0,0 +1,116 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import com.example.java_backend.dto.admin.AnnouncementRecipientRow;
+import com.example.java_backend.model.Announcement;
+import com.example.java_backend.model.AnnouncementRecipient;
+import com.example.java_backend.repository.AnnouncementDeliveryJobRepository;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRepository;
+import com.example.java_backend.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Recipient listing and exports, streamed from keyset pages of the recipient table
+class AnnouncementServiceTest {
+
+    private final AnnouncementRepository announcements = mock(AnnouncementRepository.class);
+    private final AnnouncementRecipientRepository recipients = mock(AnnouncementRecipientRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AnnouncementService service = new AnnouncementService(announcements, recipients,
+            mock(UserRepository.class), mock(AnnouncementDeliveryJobRepository.class),
+            mock(AnnouncementUnreadCounter.class), mock(ApplicationEventPublisher.class), objectMapper, true);
+
+    private final List<AnnouncementRecipientRow> rows = new ArrayList<>();
+    // afterUserId of every page read
+    private final List<Long> pagesRead = new ArrayList<>();
+
+    // announcement 1 has materialized recipients; the repository pages over the rows list
+    @BeforeEach
+    void fakeRepositories() {
+        Announcement a = new Announcement();
+        a.setId(1L);
+        when(announcements.findById(1L)).thenReturn(Optional.of(a));
+        when(recipients.findRecipientRows(eq(1L), anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long after = inv.getArgument(1);
+            Pageable pageable = inv.getArgument(2);
+            pagesRead.add(after);
+            return rows.stream().filter(r -> r.getUserId() > after).limit(pageable.getPageSize()).toList();
+        });
+    }
+
+    private void addRecipients(int count) {
+        for (long id = 1; id <= count; id++) {
+            rows.add(new AnnouncementRecipientRow(id, "User " + id, "u" + id + "@example.com", "B1",
+                    id % 2 == 0 ? AnnouncementRecipient.Status.READ : AnnouncementRecipient.Status.UNREAD));
+        }
+    }
+
+    private String export(String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportRecipients(1L, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void fullListIsOneJsonArrayAcrossPages() throws IOException {
+        addRecipients(2500);
+
+        JsonNode list = objectMapper.readTree(export("json"));
+
+        assertEquals(2500, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertEquals(i + 1, list.get(i).get("userId").asLong());
+        }
+        assertEquals("u2@example.com", list.get(1).get("email").asText());
+        assertEquals("READ", list.get(1).get("status").asText());
+        assertEquals(List.of(0L, 1000L, 2000L), pagesRead);
+    }
+
+    @Test
+    void exactMultipleOfThePageSizeEndsOnAnEmptyPage() throws IOException {
+        addRecipients(2000);
+
+        assertEquals(2000, objectMapper.readTree(export("json")).size());
+        assertEquals(List.of(0L, 1000L, 2000L), pagesRead);
+    }
+
+    @Test
+    void emptyAudienceIsAnEmptyArray() throws IOException {
+        assertEquals("[]", export("json"));
+        assertEquals("userId,fullName,email,batchId,status\n", export("csv"));
+    }
+
+    @Test
+    void csvQuotesFieldsAndNdjsonWritesOneRowPerLine() throws IOException {
+        rows.add(new AnnouncementRecipientRow(1L, "Doe, \"Jane\"", "jane@example.com", null, null));
+        rows.add(new AnnouncementRecipientRow(2L, "Bob", "bob@example.com", "B1", AnnouncementRecipient.Status.READ));
+
+        assertEquals("userId,fullName,email,batchId,status\n"
+                + "1,\"Doe, \"\"Jane\"\"\",jane@example.com,,UNREAD\n"
+                + "2,Bob,bob@example.com,B1,READ\n", export("csv"));
+
+        String[] lines = export("ndjson").split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Doe, \"Jane\"", objectMapper.readTree(lines[0]).get("fullName").asText());
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.Announcement;
+import com.example.java_backend.repository.AnnouncementRecipientRepository;
+import com.example.java_backend.repository.AnnouncementRepository;
+import com.example.java_backend.repository.UserRepository;
+import com.example.java_backend.repository.UserRepository.UnreadState;
+
+class AnnouncementUnreadCounterTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final AnnouncementRepository announcements = mock(AnnouncementRepository.class);
+
+    private AnnouncementUnreadCounter counter(int maxEntries) {
+        return new AnnouncementUnreadCounter(users, announcements, mock(AnnouncementRecipientRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), maxEntries, 600_000);
+    }
+
+    // users 1-2 are in batch B1, 3-4 in B2; each has 2 materialized and 1 virtual unread
+    @BeforeEach
+    void fakeUsers() {
+        for (long id = 1; id <= 4; id++) {
+            String batchId = id <= 2 ? "B1" : "B2";
+            UnreadState state = state(id, batchId, 2);
+            when(users.findUnreadState(id)).thenReturn(Optional.of(state));
+        }
+        when(announcements.countVirtualUnreadForUser(anyLong(), any(), any(LocalDateTime.class))).thenReturn(1L);
+    }
+
+    private static UnreadState state(long id, String batchId, int unread) {
+        return new UnreadState() {
+            public Long getId() { return id; }
+            public String getBatchId() { return batchId; }
+            public Integer getUnreadAnnouncements() { return unread; }
+            public LocalDateTime getAnnouncementsReadBefore() { return null; }
+        };
+    }
+
+    private static Announcement virtual(Announcement.TargetType target, String batchId, long maxUserId) {
+        Announcement a = new Announcement();
+        a.setVirtualAudience(true);
+        a.setTargetType(target);
+        a.setBatchId(batchId);
+        a.setAudienceMaxUserId(maxUserId);
+        return a;
+    }
+
+    @Test
+    void countsAreServedFromTheCacheOnceLoaded() {
+        AnnouncementUnreadCounter counter = counter(100);
+        assertEquals(3, counter.unreadCount(1L));
+        assertEquals(3, counter.unreadCount(1L));
+
+        verify(users, times(1)).findUnreadState(1L);
+    }
+
+    @Test
+    void newVirtualAnnouncementIsAddedToCachedMembersOnly() {
+        AnnouncementUnreadCounter counter = counter(100);
+        for (long id = 1; id <= 4; id++) {
+            counter.unreadCount(id);
+        }
+
+        // batch B1 snapshot taken when only user 1 existed
+        counter.virtualAnnouncementCreated(virtual(Announcement.TargetType.BATCH, "B1", 1));
+        assertEquals(4, counter.unreadCount(1L));
+        assertEquals(3, counter.unreadCount(2L));
+        assertEquals(3, counter.unreadCount(3L));
+
+        counter.virtualAnnouncementCreated(virtual(Announcement.TargetType.ALL, null, 4));
+        assertEquals(5, counter.unreadCount(1L));
+        assertEquals(4, counter.unreadCount(4L));
+
+        // maintained in memory, never reloaded
+        verify(users, times(1)).findUnreadState(1L);
+        verify(users, times(1)).findUnreadState(4L);
+    }
+
+    @Test
+    void removingABatchAnnouncementOnlyReloadsThatBatch() {
+        AnnouncementUnreadCounter counter = counter(100);
+        for (long id = 1; id <= 4; id++) {
+            counter.unreadCount(id);
+        }
+
+        counter.virtualAudienceRemoved(virtual(Announcement.TargetType.BATCH, "B2", 4));
+        for (long id = 1; id <= 4; id++) {
+            counter.unreadCount(id);
+        }
+
+        verify(users, times(1)).findUnreadState(1L);
+        verify(users, times(1)).findUnreadState(2L);
+        verify(users, times(2)).findUnreadState(3L);
+        verify(users, times(2)).findUnreadState(4L);
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsed() throws Exception {
+        AnnouncementUnreadCounter counter = counter(3);
+        counter.unreadCount(1L);
+        Thread.sleep(2);
+        counter.unreadCount(2L);
+        Thread.sleep(2);
+        counter.unreadCount(3L);
+        Thread.sleep(2);
+        counter.unreadCount(1L); // user 2 is now the least recently used
+
+        counter.unreadCount(4L);
+        counter.unreadCount(4L);
+        counter.unreadCount(1L);
+        counter.unreadCount(2L);
+
+        verify(users, times(1)).findUnreadState(4L);
+        verify(users, times(1)).findUnreadState(1L);
+        verify(users, times(2)).findUnreadState(2L);
+        verify(announcements, times(5)).countVirtualUnreadForUser(anyLong(), any(), eq(LocalDateTime.of(1000, 1, 1, 0, 0)));
+    }
+}
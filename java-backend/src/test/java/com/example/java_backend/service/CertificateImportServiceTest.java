@@ -0,0 +1,104 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.dto.admin.CertificateImportReport;
+import com.example.java_backend.model.User;
+import com.example.java_backend.model.UserSelectedCourse;
+import com.example.java_backend.repository.CourseRepository;
+import com.example.java_backend.repository.UserSelectedCourseRepository;
+import com.example.java_backend.service.CertificateStorageService.StoredCertificate;
+
+class CertificateImportServiceTest {
+
+    private final CertificateStorageService storage = mock(CertificateStorageService.class);
+    private final CourseRepository courses = mock(CourseRepository.class);
+    private final UserSelectedCourseRepository enrollments = mock(UserSelectedCourseRepository.class);
+
+    private CertificateImportService service(int maxEntries) {
+        return new CertificateImportService(storage, courses, enrollments,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), maxEntries);
+    }
+
+    // course 7 has students s1..s5 (enrollment ids 1..5); storage reads each entry to the end
+    @BeforeEach
+    void fakeCourse() throws IOException {
+        when(courses.existsById(7L)).thenReturn(true);
+        List<UserSelectedCourse> enrolled = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            User user = new User();
+            user.setEmail("s" + id + "@example.com");
+            UserSelectedCourse e = new UserSelectedCourse();
+            e.setId(id);
+            e.setUser(user);
+            enrolled.add(e);
+        }
+        when(enrollments.findByCourseIdWithUser(7L)).thenReturn(enrolled);
+        when(storage.store(any(InputStream.class), anyLong())).thenAnswer(inv -> {
+            byte[] content = inv.<InputStream>getArgument(0).readAllBytes();
+            return new StoredCertificate("/uploads/certificates/" + content.length + ".pdf", "sha", content.length, false);
+        });
+    }
+
+    private static byte[] zip(int students) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (int i = 1; i <= students; i++) {
+                out.putNextEntry(new ZipEntry("s" + i + "@example.com.pdf"));
+                byte[] content = new byte[1000 * i];
+                new Random(i).nextBytes(content); // incompressible, so entry i takes ~1000*i bytes
+                out.write(content);
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void tooManyFilesIsReportedAndEarlierEntriesAreLinked() throws IOException {
+        CertificateImportReport report = service(2).importZip(7L, new ByteArrayInputStream(zip(3)));
+
+        assertEquals(2, report.getStored());
+        assertEquals(1, report.getFailed());
+        assertEquals("s3@example.com.pdf", report.getRows().get(2).getEntry());
+        verify(enrollments).updateCertificateUrl(1L, "/uploads/certificates/1000.pdf");
+        verify(enrollments).updateCertificateUrl(2L, "/uploads/certificates/2000.pdf");
+    }
+
+    @Test
+    void corruptArchiveKeepsWhatWasStoredBeforeIt() throws IOException {
+        byte[] whole = zip(3);
+        byte[] truncated = Arrays.copyOf(whole, whole.length - 1500); // cuts into the third entry's data
+
+        CertificateImportReport report = service(10).importZip(7L, new ByteArrayInputStream(truncated));
+
+        assertEquals(2, report.getStored());
+        assertEquals(1, report.getFailed());
+        CertificateImportReport.Row error = report.getRows().get(2);
+        assertTrue(error.getError().startsWith("Archive could not be read"), error.getError());
+        verify(enrollments).updateCertificateUrl(1L, "/uploads/certificates/1000.pdf");
+        verify(enrollments).updateCertificateUrl(2L, "/uploads/certificates/2000.pdf");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.Course;
+import com.example.java_backend.repository.CourseRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CourseEnrollmentCounterTest {
+
+    private final CourseRepository courses = mock(CourseRepository.class);
+    private final CourseCatalogCache catalog = mock(CourseCatalogCache.class);
+    private final CourseSearchIndex search = mock(CourseSearchIndex.class);
+
+    private final CourseEnrollmentCounter counter = new CourseEnrollmentCounter(courses, catalog, search,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void fakeRepository() {
+        when(courses.findAllById(any())).thenReturn(List.of());
+    }
+
+    private static Course course(long id, int epoch) {
+        Course c = new Course();
+        c.setId(id);
+        c.setParticipantsEpoch(epoch);
+        return c;
+    }
+
+    @Test
+    void deltasAreSummedAndFlushedPerEpoch() {
+        counter.enrolled(course(1, 0));
+        counter.enrolled(course(1, 0));
+        counter.enrolled(course(2, 0));
+        counter.enrolled(course(2, 0));
+        counter.unenrolled(course(3, 0));
+        assertEquals(12, counter.participants(1L, 10));
+
+        counter.flush();
+
+        verify(courses).addParticipants(List.of(1L, 2L), 2, 0);
+        verify(courses).addParticipants(List.of(3L), -1, 0);
+        assertEquals(10, counter.participants(1L, 10));
+    }
+
+    @Test
+    void flushLeavesTheCatalogSnapshotAlone() {
+        counter.enrolled(course(1, 0));
+        counter.flush();
+
+        verify(catalog, never()).invalidate();
+        verify(courses).findAllById(List.of(1L));
+    }
+
+    @Test
+    void deltasFromBeforeARecountAreDropped() {
+        counter.enrolled(course(1, 4));
+        counter.enrolled(course(1, 4));
+
+        // another instance recounted (epoch 5) and already counted those two
+        counter.enrolled(course(1, 5));
+        counter.enrolled(course(1, 4)); // read the course before the recount committed
+        assertEquals(1, counter.participants(1L, 0));
+
+        counter.flush();
+        verify(courses).addParticipants(List.of(1L), 1, 5);
+        verify(courses, never()).addParticipants(anyCollection(), anyInt(), eq(4));
+    }
+
+    @Test
+    void recountOnlyRunsUnderTheClusterLock() {
+        when(courses.tryRecountLock()).thenReturn(0);
+        counter.recount();
+        verify(courses, never()).recountParticipants();
+
+        when(courses.tryRecountLock()).thenReturn(1);
+        when(courses.recountParticipants()).thenReturn(3);
+        counter.recount();
+        verify(courses).recountParticipants();
+        verify(courses).releaseRecountLock();
+        verify(search).rebuild();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.java_backend.dto.course.CoursePageDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+class CourseQueryServiceTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final CourseEnrollmentCounter counter = mock(CourseEnrollmentCounter.class);
+    private final CourseQueryService service = new CourseQueryService(entityManager, counter);
+
+    // what the last query was built from
+    private final List<String> jpql = new ArrayList<>();
+    private final Map<String, Object> parameters = new HashMap<>();
+    private List<Tuple> resultRows = List.of();
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void fakeQueries() {
+        TypedQuery<Tuple> query = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(Tuple.class))).thenAnswer(inv -> {
+            jpql.add(inv.getArgument(0));
+            parameters.clear();
+            return query;
+        });
+        when(query.setParameter(anyString(), any())).thenAnswer(inv -> {
+            parameters.put(inv.getArgument(0), inv.getArgument(1));
+            return query;
+        });
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenAnswer(inv -> resultRows);
+        when(counter.participants(any(), anyInt())).thenAnswer(inv -> inv.<Integer>getArgument(1));
+    }
+
+    private static Tuple row(long id, double rating, int participants) {
+        Map<String, Object> values = Map.of("id", id, "title", "Course " + id, "rating", rating,
+                "totalParticipants", participants);
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.get(anyString())).thenAnswer(inv -> values.get(inv.<String>getArgument(0)));
+        when(tuple.get(anyString(), any())).thenAnswer(inv -> values.get(inv.<String>getArgument(0)));
+        return tuple;
+    }
+
+    @Test
+    void cursorFromOnePageSelectsTheNext() {
+        // page size 2, one extra row fetched to detect the next page
+        resultRows = List.of(row(9, 4.8, 10), row(4, 4.5, 20), row(7, 4.5, 5));
+        CoursePageDTO first = service.getPage("title", "rating", null, 2);
+
+        assertEquals(2, first.getItems().size());
+        assertEquals(List.of("title"), List.copyOf(first.getItems().get(0).keySet()));
+        assertNotNull(first.getNextCursor());
+        assertTrue(jpql.get(0).endsWith("FROM Course c ORDER BY c.rating DESC, c.id DESC"), jpql.get(0));
+
+        resultRows = List.of(row(7, 4.5, 5));
+        CoursePageDTO second = service.getPage("title", "rating", first.getNextCursor(), 2);
+
+        assertTrue(jpql.get(1).contains("WHERE (c.rating, c.id) < (:lastKey, :lastId)"), jpql.get(1));
+        assertEquals(4.5, parameters.get("lastKey"));
+        assertEquals(4L, parameters.get("lastId"));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void idCursorIsTypedForEachSort() {
+        resultRows = List.of(row(1, 3.0, 30), row(2, 3.0, 20));
+        CoursePageDTO byId = service.getPage("id", null, null, 1);
+        service.getPage("id", null, byId.getNextCursor(), 1);
+        assertEquals(Map.of("lastId", 1L), parameters);
+        assertTrue(jpql.get(1).contains("WHERE c.id > :lastId ORDER BY c.id"), jpql.get(1));
+
+        CoursePageDTO byParticipants = service.getPage("id", "participants", null, 1);
+        service.getPage("id", "participants", byParticipants.getNextCursor(), 1);
+        assertEquals(Map.of("lastKey", 30, "lastId", 1L), parameters);
+    }
+
+    @Test
+    void malformedCursorsAndFieldsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, "rating", "not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage("title,password", null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(null, "price", null, 10));
+    }
+}
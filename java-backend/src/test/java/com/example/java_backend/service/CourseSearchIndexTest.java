@@ -0,0 +1,108 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.java_backend.dto.course.CourseDTO;
+import com.example.java_backend.dto.course.CourseSearchResult;
+import com.example.java_backend.repository.CourseRepository;
+
+class CourseSearchIndexTest {
+
+    private final CourseSearchIndex index = new CourseSearchIndex(mock(CourseRepository.class));
+
+    private static CourseDTO course(long id, String title, String level, String mode, String price,
+                                    double rating, int participants) {
+        return new CourseDTO(id, title, "About " + title, null, mode, rating, 0, price, level,
+                participants, null, null, null);
+    }
+
+    // outside a transaction upserts apply immediately
+    @BeforeEach
+    void catalog() {
+        index.upsert(course(1, "Machine Learning Basics", "Beginner", "Online", "Free", 4.5, 120));
+        index.upsert(course(2, "Deep Learning with PyTorch", "Advanced", "Online", "$49.99", 4.8, 80));
+        index.upsert(course(3, "Machine Vision", "Intermediate", "Physical", "LKR 12,500", 4.1, 300));
+        index.upsert(course(4, "Web Development", "Beginner", "Both", "$19", 3.9, 50));
+        index.upsert(course(5, "Data Engineering", "Intermediate", "Online", null, 4.8, 10));
+    }
+
+    private CourseSearchResult search(String query) {
+        return index.search(query, null, null, null, null, CourseSearchIndex.Sort.RATING, false, 0, 10);
+    }
+
+    private static List<Long> ids(CourseSearchResult result) {
+        return result.getItems().stream().map(CourseDTO::getId).toList();
+    }
+
+    @Test
+    void tokensAreCaseAndPunctuationInsensitive() {
+        assertEquals(List.of(2L), ids(search("PYTORCH")));
+        assertEquals(List.of(2L), ids(search("deep-learning")));
+        assertEquals(List.of(1L, 3L), ids(search("machine")));
+    }
+
+    @Test
+    void onlyTheLastWordMatchesAsAPrefix() {
+        assertEquals(List.of(2L, 1L), ids(search("learn")));
+        assertEquals(List.of(1L), ids(search("machine lea")));
+        assertEquals(List.of(), ids(search("mach learning")));
+    }
+
+    @Test
+    void facetsFilterAndCountOverAllHits() {
+        CourseSearchResult online = index.search("", null, List.of("online"), null, null,
+                CourseSearchIndex.Sort.RATING, false, 0, 1);
+
+        assertEquals(3, online.getTotal());
+        assertEquals(1, online.getItems().size());
+        assertEquals(Map.of("Beginner", 1, "Advanced", 1, "Intermediate", 1), online.getFacets().get("level"));
+        assertEquals(Map.of("Online", 3), online.getFacets().get("mode"));
+
+        CourseSearchResult beginnerOrAdvanced = index.search(null, List.of("BEGINNER", "advanced"), null, null, null,
+                CourseSearchIndex.Sort.RATING, false, 0, 10);
+        assertEquals(List.of(2L, 1L, 4L), ids(beginnerOrAdvanced));
+    }
+
+    @Test
+    void priceRangeSkipsUnknownPrices() {
+        CourseSearchResult cheap = index.search(null, null, null, 0.0, 50.0,
+                CourseSearchIndex.Sort.RATING, false, 0, 10);
+        assertEquals(List.of(2L, 1L, 4L), ids(cheap));
+        assertEquals(12500.0, CourseSearchIndex.parsePrice("LKR 12,500"));
+        assertTrue(Double.isNaN(CourseSearchIndex.parsePrice("Contact us")));
+    }
+
+    @Test
+    void pagesFollowTheSortOrderWithIdTieBreak() {
+        // rating desc: 2 (4.8), 5 (4.8), 1, 3, 4
+        CourseSearchResult first = index.search(null, null, null, null, null, CourseSearchIndex.Sort.RATING, false, 0, 2);
+        CourseSearchResult second = index.search(null, null, null, null, null, CourseSearchIndex.Sort.RATING, false, 1, 2);
+        CourseSearchResult last = index.search(null, null, null, null, null, CourseSearchIndex.Sort.RATING, false, 2, 2);
+        assertEquals(List.of(2L, 5L), ids(first));
+        assertEquals(List.of(1L, 3L), ids(second));
+        assertEquals(List.of(4L), ids(last));
+        assertEquals(5, last.getTotal());
+
+        CourseSearchResult leastPopular = index.search(null, null, null, null, null,
+                CourseSearchIndex.Sort.PARTICIPANTS, true, 0, 2);
+        assertEquals(List.of(5L, 4L), ids(leastPopular));
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceTheSlot() {
+        index.upsert(course(4, "Web Development with React", "Beginner", "Online", "$19", 3.9, 50));
+        index.remove(3L);
+
+        assertEquals(List.of(4L), ids(search("react")));
+        assertEquals(List.of(1L), ids(search("machine")));
+        assertEquals(4, search(null).getTotal());
+    }
+}
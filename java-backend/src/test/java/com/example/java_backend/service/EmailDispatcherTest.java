@@ -0,0 +1,180 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.model.EmailOutbox;
+import com.example.java_backend.repository.EmailOutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailDispatcherTest {
+
+    private static final long BACKOFF_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 100_000;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final EmailOutboxRepository outbox = mock(EmailOutboxRepository.class);
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+
+    private final EmailDispatcher dispatcher = new EmailDispatcher(outbox, mailSender,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), meters,
+            "noreply@example.com", 50, 4, BACKOFF_MS, MAX_BACKOFF_MS, 24);
+
+    private static EmailOutbox message(long id, String recipient) {
+        EmailOutbox msg = new EmailOutbox();
+        msg.setId(id);
+        msg.setRecipient(recipient);
+        msg.setSubject("Verify your account");
+        msg.setBody("link for " + recipient);
+        return msg;
+    }
+
+    private void dispatch(EmailOutbox... batch) {
+        when(outbox.findDue(any(), any())).thenReturn(new ArrayList<>(List.of(batch)));
+        dispatcher.dispatch();
+    }
+
+    // JavaMailSenderImpl reports failures keyed by the SimpleMailMessage instances it was given
+    private void refuse(int index, String error) {
+        doAnswer(inv -> {
+            // varargs are expanded: one invocation argument per message
+            Object refused = inv.getArguments()[index];
+            throw new MailSendException(Map.of(refused, new Exception(error)));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+    }
+
+    private static long secondsUntilRetry(EmailOutbox msg) {
+        return Duration.between(LocalDateTime.now(), msg.getNextAttemptAt()).toSeconds();
+    }
+
+    @Test
+    void acceptedMessagesAreMarkedSent() {
+        EmailOutbox a = message(1, "a@example.com");
+        EmailOutbox b = message(2, "b@example.com");
+        dispatch(a, b);
+
+        assertEquals(EmailOutbox.Status.SENT, a.getStatus());
+        assertEquals(EmailOutbox.Status.SENT, b.getStatus());
+        assertEquals(0, a.getAttempts());
+        assertEquals(2.0, meters.get("email.outbox.sent").counter().count());
+    }
+
+    @Test
+    void onlyRefusedMessagesAreRetried() {
+        EmailOutbox ok = message(1, "ok@example.com");
+        EmailOutbox refused = message(2, "refused@example.com");
+        refuse(1, "550 mailbox unavailable");
+
+        dispatch(ok, refused);
+
+        assertEquals(EmailOutbox.Status.SENT, ok.getStatus());
+        assertEquals(EmailOutbox.Status.PENDING, refused.getStatus());
+        assertEquals(1, refused.getAttempts());
+        assertEquals("550 mailbox unavailable", refused.getLastError());
+    }
+
+    @Test
+    void linkTokenIsOnlyInTheOutgoingMessage() {
+        EmailOutbox msg = message(1, "a@example.com");
+        msg.setBody("verify: https://example.com/verify?token=" + EmailOutbox.TOKEN_PLACEHOLDER);
+        msg.setLinkToken("raw-secret");
+        List<String> sentTexts = new ArrayList<>();
+        doAnswer(inv -> {
+            for (Object m : inv.getArguments()) {
+                sentTexts.add(((SimpleMailMessage) m).getText());
+            }
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatch(msg);
+
+        assertEquals(List.of("verify: https://example.com/verify?token=raw-secret"), sentTexts);
+        assertEquals(EmailOutbox.Status.SENT, msg.getStatus());
+        assertNull(msg.getLinkToken());
+        assertFalse(msg.getBody().contains("raw-secret"));
+    }
+
+    @Test
+    void identicalMessagesAreTrackedSeparately() {
+        EmailOutbox first = message(1, "a@example.com");
+        EmailOutbox second = message(2, "a@example.com");
+        refuse(1, "452 too many recipients");
+
+        dispatch(first, second);
+
+        assertEquals(EmailOutbox.Status.SENT, first.getStatus());
+        assertEquals(EmailOutbox.Status.PENDING, second.getStatus());
+        assertEquals(1, second.getAttempts());
+    }
+
+    @Test
+    void sentMessagesArePurgedInPages() {
+        List<Long> fullPage = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            fullPage.add(id);
+        }
+        when(outbox.findSentIdsBefore(any(), any())).thenReturn(fullPage, List.of(1001L));
+
+        dispatcher.purgeSent();
+
+        verify(outbox).deleteByIds(fullPage);
+        verify(outbox).deleteByIds(List.of(1001L));
+    }
+
+    @Test
+    void backoffDoublesPerAttemptUpToTheCap() {
+        doThrow(new MailSendException("connect timed out")).when(mailSender).send(any(SimpleMailMessage[].class));
+        EmailOutbox msg = message(1, "a@example.com");
+
+        // 30s, 60s, then 120s capped at 100s
+        long[] expectedSeconds = {30, 60, 100};
+        for (long expected : expectedSeconds) {
+            dispatch(msg);
+            long actual = secondsUntilRetry(msg);
+            assertTrue(Math.abs(actual - expected) <= 1, "expected ~" + expected + "s, was " + actual + "s");
+            assertEquals(EmailOutbox.Status.PENDING, msg.getStatus());
+        }
+        assertEquals(3, msg.getAttempts());
+        assertEquals("connect timed out", msg.getLastError());
+    }
+
+    @Test
+    void messageIsGivenUpAfterMaxAttempts() {
+        doThrow(new MailSendException("connect timed out")).when(mailSender).send(any(SimpleMailMessage[].class));
+        EmailOutbox msg = message(1, "a@example.com");
+        msg.setAttempts(3);
+        LocalDateTime previousRetry = LocalDateTime.now().minusMinutes(1);
+        msg.setNextAttemptAt(previousRetry);
+
+        dispatch(msg);
+
+        assertEquals(EmailOutbox.Status.FAILED, msg.getStatus());
+        assertEquals(4, msg.getAttempts());
+        assertEquals(previousRetry, msg.getNextAttemptAt());
+        assertNull(msg.getSentAt());
+        assertNull(msg.getLinkToken());
+        assertEquals(1.0, meters.get("email.outbox.failed").counter().count());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.java_backend.service.GoogleTokenVerifier.GoogleIdentity;
+import com.sun.net.httpserver.HttpServer;
+
+// A local key server stands in for Google's certificate endpoint (test key pair in src/test/resources/google)
+class GoogleTokenVerifierTest {
+
+    private static final String CLIENT_ID = "client-1";
+    private static final String ISSUER = "https://accounts.google.com";
+
+    private final AtomicInteger certFetches = new AtomicInteger();
+    private final AtomicBoolean certsFailing = new AtomicBoolean();
+    private volatile int certsMaxAgeSeconds = 3600;
+
+    private HttpServer server;
+    private PrivateKey signingKey;
+    private GoogleTokenVerifier verifier;
+
+    @BeforeEach
+    void startKeyServer() throws Exception {
+        String cert = resource("google/signing-cert.pem");
+        String keyPem = resource("google/signing-key.pem").replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        signingKey = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(keyPem)));
+
+        byte[] body = ("{\"k1\":\"" + cert.replace("\n", "\\n") + "\"}").getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/certs", exchange -> {
+            certFetches.incrementAndGet();
+            if (certsFailing.get()) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                exchange.getResponseHeaders().add("Cache-Control", "public, max-age=" + certsMaxAgeSeconds);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+        server.stop(0);
+    }
+
+    private GoogleTokenVerifier verifier(long refreshAheadMillis) {
+        verifier = new GoogleTokenVerifier(CLIENT_ID, "http://localhost:" + server.getAddress().getPort() + "/certs",
+                List.of(ISSUER), 4, 300_000, 100, refreshAheadMillis);
+        return verifier;
+    }
+
+    @Test
+    void signingKeysAreFetchedOncePerMaxAge() throws Exception {
+        GoogleTokenVerifier verifier = verifier(600_000);
+        verifier.refreshKeysIfStale();
+        assertEquals(1, certFetches.get());
+
+        for (int i = 0; i < 5; i++) {
+            GoogleIdentity identity = verifier.verify(token("user" + i + "@example.com", CLIENT_ID));
+            assertEquals("user" + i + "@example.com", identity.email());
+        }
+        // keys are an hour from expiry, well outside the refresh-ahead window
+        verifier.refreshKeysIfStale();
+        assertEquals(1, certFetches.get());
+    }
+
+    @Test
+    void keysAreRefreshedAheadOfExpiry() throws Exception {
+        certsMaxAgeSeconds = 800;
+        GoogleTokenVerifier verifier = verifier(1_000_000);
+        verifier.refreshKeysIfStale();
+        verifier.refreshKeysIfStale();
+        assertEquals(2, certFetches.get());
+
+        // logins in between never wait on a fetch
+        verifier.verify(token("jane@example.com", CLIENT_ID));
+        assertEquals(2, certFetches.get());
+    }
+
+    @Test
+    void failedRefreshKeepsServingCachedKeys() throws Exception {
+        certsMaxAgeSeconds = 800;
+        GoogleTokenVerifier verifier = verifier(1_000_000);
+        verifier.refreshKeysIfStale();
+
+        certsFailing.set(true);
+        assertDoesNotThrow(verifier::refreshKeysIfStale);
+        assertEquals(2, certFetches.get());
+        assertEquals("jane@example.com", verifier.verify(token("jane@example.com", CLIENT_ID)).email());
+    }
+
+    @Test
+    void tokensForAnotherAudienceAreRejected() throws Exception {
+        GoogleTokenVerifier verifier = verifier(600_000);
+        verifier.refreshKeysIfStale();
+
+        assertThrows(RuntimeException.class, () -> verifier.verify(token("jane@example.com", "other-client")));
+        assertThrows(RuntimeException.class, () -> verifier.verify("not.a.token"));
+        assertEquals(1, certFetches.get());
+    }
+
+    private String token(String email, String audience) throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        String header = b64("{\"alg\":\"RS256\",\"kid\":\"k1\",\"typ\":\"JWT\"}");
+        String payload = b64("{\"iss\":\"" + ISSUER + "\",\"aud\":\"" + audience + "\",\"iat\":" + now
+                + ",\"exp\":" + (now + 600) + ",\"email\":\"" + email + "\",\"name\":\"Test\"}");
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKey);
+        signature.update((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        return header + "." + payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private static String b64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String resource(String name) throws IOException {
+        try (InputStream in = GoogleTokenVerifierTest.class.getClassLoader().getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+    }
+}
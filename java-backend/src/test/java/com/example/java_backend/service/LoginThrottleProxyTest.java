@@ -0,0 +1,94 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.RemoteIpValve;
+import org.apache.catalina.valves.ValveBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+// Login throttling behind the reverse proxy, with the RemoteIpValve that application.properties configures
+class LoginThrottleProxyTest {
+
+    private static final String PROXY = "10.0.0.5";
+
+    // ip: burst 2, account: burst 100
+    private final LoginThrottle throttle = new LoginThrottle(new SimpleMeterRegistry(), 2, 1, 100, 1, 1000);
+    private final List<String> seenAddresses = new ArrayList<>();
+    private RemoteIpValve valve;
+
+    @BeforeEach
+    void configuredValve() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(
+                new ResourcePropertySource(new ClassPathResource("application.properties")));
+        ServerProperties server = Binder.get(environment).bind("server", ServerProperties.class).get();
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory();
+        new TomcatWebServerFactoryCustomizer(environment, server).customize(factory);
+
+        valve = null;
+        for (Valve v : factory.getEngineValves()) {
+            if (v instanceof RemoteIpValve remoteIp) {
+                valve = remoteIp;
+            }
+        }
+        // the controller: throttle on whatever address the request ends up with
+        valve.setNext(new ValveBase() {
+            @Override
+            public void invoke(Request request, Response response) {
+                seenAddresses.add(request.getRemoteAddr());
+                throttle.checkLogin(request.getRemoteAddr(), "jane" + seenAddresses.size() + "@example.com");
+            }
+        });
+    }
+
+    private void login(String peer, String forwardedFor) throws IOException, ServletException {
+        org.apache.coyote.Request coyote = new org.apache.coyote.Request();
+        coyote.getMimeHeaders().addValue("X-Forwarded-For").setString(forwardedFor);
+        Request request = new Request(new Connector());
+        request.setCoyoteRequest(coyote);
+        request.setRemoteAddr(peer);
+        valve.invoke(request, new Response());
+    }
+
+    @Test
+    void clientsBehindTheProxyGetTheirOwnBuckets() throws Exception {
+        login(PROXY, "203.0.113.1");
+        login(PROXY, "203.0.113.1");
+        assertThrows(LoginThrottledException.class, () -> login(PROXY, "203.0.113.1"));
+
+        // same proxy connection, different client: its bucket is still full
+        assertDoesNotThrow(() -> login(PROXY, "198.51.100.7"));
+        assertEquals(List.of("203.0.113.1", "203.0.113.1", "203.0.113.1", "198.51.100.7"), seenAddresses);
+    }
+
+    @Test
+    void forwardedForFromAnUntrustedPeerIsIgnored() throws Exception {
+        login("198.51.100.50", "203.0.113.1");
+        login("198.51.100.50", "203.0.113.2");
+
+        // a direct client cannot pick a fresh bucket by rotating the header
+        assertThrows(LoginThrottledException.class, () -> login("198.51.100.50", "203.0.113.3"));
+        assertEquals(List.of("198.51.100.50", "198.51.100.50", "198.51.100.50"), seenAddresses);
+    }
+}
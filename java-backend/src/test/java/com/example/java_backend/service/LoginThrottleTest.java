@@ -0,0 +1,73 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private LoginThrottle throttle(int maxKeys) {
+        // ip: burst 20, account: burst 3 at 1/min
+        return new LoginThrottle(meters, 20, 10, 3, 1, maxKeys);
+    }
+
+    private double keys() {
+        return meters.get("auth.login.throttle.keys").gauge().value();
+    }
+
+    @Test
+    void accountBucketRunsOutAfterBurst() {
+        LoginThrottle throttle = throttle(1000);
+        for (int i = 0; i < 3; i++) {
+            throttle.checkLogin("10.0.0." + i, "Jane@Example.com");
+        }
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> throttle.checkLogin("10.0.0.99", "jane@example.com "));
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 60);
+        assertEquals(1.0, meters.get("auth.login.throttle").tag("result", "throttled_account").counter().count());
+    }
+
+    @Test
+    void addressBucketIsIndependentOfAccounts() {
+        LoginThrottle throttle = throttle(1000);
+        for (int i = 0; i < 20; i++) {
+            throttle.checkLogin("10.0.0.1", "user" + i + "@x");
+        }
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("10.0.0.1", "other@x"));
+        assertDoesNotThrow(() -> throttle.checkLogin("10.0.0.2", "other@x"));
+    }
+
+    @Test
+    void tableNeverGrowsPastTheCap() {
+        LoginThrottle throttle = throttle(100);
+        for (int i = 0; i < 5_000; i++) {
+            throttle.checkLogin("ip-" + i, "random" + i + "@x");
+            assertTrue(keys() <= 200, "keys=" + keys());
+        }
+        // each trim frees 10% of the cap, so trims are amortized over many new keys
+        double trims = meters.get("auth.login.throttle.evictions").counter().count();
+        assertTrue(trims > 0 && trims <= 2 * 5_000 / 10 + 2, "trims=" + trims);
+    }
+
+    @Test
+    void trimKeepsTheBucketsWithMostState() {
+        LoginThrottle throttle = throttle(10);
+        // drain one account completely, then flood with fresh keys
+        for (int i = 0; i < 3; i++) {
+            throttle.checkLogin("a" + i, "victim@x");
+        }
+        for (int i = 0; i < 50; i++) {
+            throttle.checkLogin("b" + i, null);
+            throttle.checkLogin("c" + i, "fresh" + i + "@x");
+        }
+        // the drained bucket is furthest from full, so it survives every trim
+        assertThrows(LoginThrottledException.class, () -> throttle.checkLogin("z", "victim@x"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService created;
+
+    // one worker, room for 8 waiting, cost 10 pinned
+    private PasswordHashingService hashing(long timeoutMillis) {
+        created = new PasswordHashingService(new SimpleMeterRegistry(), 1, 8, timeoutMillis, 10, 250, 10, 14);
+        return created;
+    }
+
+    @AfterEach
+    void stop() {
+        created.shutdown();
+    }
+
+    @Test
+    void idlePoolHashesAndMatches() {
+        PasswordHashingService hashing = hashing(5000);
+        String hash = hashing.encode("s3cret");
+        assertTrue(hashing.matches("s3cret", hash));
+    }
+
+    @Test
+    void requestThatWouldTimeOutIsRejectedWithoutWaiting() {
+        PasswordHashingService hashing = hashing(100);
+        // six hashes ahead of the next request: far more than 100 ms of work for one worker
+        List<CompletableFuture<String>> backlog = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            backlog.add(hashing.encodeLater("background-" + i));
+        }
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingBusyException.class, () -> hashing.encode("s3cret"));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(waitedMillis < 50, "rejected after " + waitedMillis + " ms");
+
+        backlog.forEach(CompletableFuture::join);
+    }
+}
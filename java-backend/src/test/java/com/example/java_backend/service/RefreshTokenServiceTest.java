@@ -0,0 +1,110 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.java_backend.model.RefreshToken;
+import com.example.java_backend.repository.RefreshTokenRepository;
+
+class RefreshTokenServiceTest {
+
+    private final Map<String, RefreshToken> tokensByHash = new HashMap<>();
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, 60_000);
+
+    // The repository mock keeps tokens in a map so rotations and revocations can be observed
+    @BeforeEach
+    void fakeRepository() {
+        when(repository.save(any(RefreshToken.class))).thenAnswer(inv -> {
+            RefreshToken token = inv.getArgument(0);
+            tokensByHash.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findByTokenHashForUpdate(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(tokensByHash.get(inv.<String>getArgument(0))));
+        when(repository.findByTokenHash(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(tokensByHash.get(inv.<String>getArgument(0))));
+        when(repository.revokeFamily(anyString(), any(LocalDateTime.class))).thenAnswer(inv -> {
+            String familyId = inv.getArgument(0);
+            LocalDateTime now = inv.getArgument(1);
+            int revoked = 0;
+            for (RefreshToken token : tokensByHash.values()) {
+                if (token.getFamilyId().equals(familyId) && token.getRevokedAt() == null) {
+                    token.setRevokedAt(now);
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+    }
+
+    private RefreshToken stored(String raw) {
+        return tokensByHash.get(TokenHashing.sha256Hex(raw));
+    }
+
+    @Test
+    void rotationRevokesThePresentedTokenAndStaysInTheFamily() {
+        String first = service.issue(7L);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertEquals(7L, rotation.userId());
+        assertNotEquals(first, rotation.refreshToken());
+        assertNotNull(stored(first).getRevokedAt());
+        assertNull(stored(rotation.refreshToken()).getRevokedAt());
+        assertEquals(stored(first).getFamilyId(), stored(rotation.refreshToken()).getFamilyId());
+    }
+
+    @Test
+    void reusedTokenRevokesTheWholeFamily() {
+        String first = service.issue(7L);
+        String second = service.rotate(first).refreshToken();
+        String third = service.rotate(second).refreshToken();
+
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> service.rotate(first));
+        assertEquals("Refresh token already used", e.getMessage());
+        assertNotNull(stored(third).getRevokedAt());
+
+        // the legitimate holder of the newest token is logged out as well
+        assertThrows(InvalidTokenException.class, () -> service.rotate(third));
+    }
+
+    @Test
+    void reuseLeavesOtherSessionsAlone() {
+        String leaked = service.issue(7L);
+        service.rotate(leaked);
+        String otherDevice = service.issue(7L);
+
+        assertThrows(InvalidTokenException.class, () -> service.rotate(leaked));
+
+        assertNull(stored(otherDevice).getRevokedAt());
+        assertEquals(7L, service.rotate(otherDevice).userId());
+    }
+
+    @Test
+    void unknownAndExpiredTokensAreRejected() {
+        assertThrows(InvalidTokenException.class, () -> service.rotate(null));
+        assertThrows(InvalidTokenException.class, () -> service.rotate("no-such-token"));
+
+        String raw = service.issue(7L);
+        stored(raw).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        InvalidTokenException e = assertThrows(InvalidTokenException.class, () -> service.rotate(raw));
+        assertEquals("Refresh token expired", e.getMessage());
+        assertNull(stored(raw).getRevokedAt());
+    }
+}
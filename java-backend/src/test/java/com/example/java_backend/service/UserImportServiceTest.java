@@ -0,0 +1,115 @@
+package com.example.java_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.java_backend.dto.admin.UserImportReport;
+import com.example.java_backend.repository.UserRepository;
+
+class UserImportServiceTest {
+
+    private final UserRepository users = mock(UserRepository.class);
+    private final PasswordHashingService hashing = mock(PasswordHashingService.class);
+    private final EmailVerificationService verification = mock(EmailVerificationService.class);
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+    private final UserImportService service = new UserImportService(users, hashing, verification, jdbc,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, 100);
+
+    // nothing taken yet; hashes are "hash:" + password; inserted users get ids 100, 101, ...
+    @BeforeEach
+    void fakeCollaborators() {
+        when(users.findExistingEmails(anyList())).thenReturn(List.of());
+        when(hashing.encodeAll(anyList())).thenAnswer(inv -> {
+            List<String> hashes = new ArrayList<>();
+            for (String raw : inv.<List<String>>getArgument(0)) {
+                hashes.add("hash:" + raw);
+            }
+            return hashes;
+        });
+        when(users.findIdsByEmails(anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = new ArrayList<>();
+            long id = 100;
+            for (String email : inv.<List<String>>getArgument(0)) {
+                rows.add(new Object[] { id++, email });
+            }
+            return rows;
+        });
+    }
+
+    private UserImportReport importCsv(String csv) throws IOException {
+        return service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    @Test
+    void passwordsAreNotTrimmed() throws IOException {
+        importCsv("fullName,email,password\n  Jane Doe ,  jane@example.com , s3cret  \n");
+
+        verify(hashing).encodeAll(List.of(" s3cret  "));
+        verify(verification).sendVerificationEmail(100L, "Jane Doe", "jane@example.com");
+    }
+
+    @Test
+    void chunkThatLosesTheEmailRaceTwiceIsReportedAsFailed() throws IOException {
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new DuplicateKeyException("users.email"));
+
+        UserImportReport report = importCsv("fullName,email,password\n"
+                + "A,a@example.com,pw-a\n"
+                + "B,b@example.com,pw-b\n");
+
+        assertEquals(2, report.getFailed());
+        assertEquals(0, report.getCreated());
+        assertEquals(List.of(2L, 3L), report.getRows().stream().map(UserImportReport.Row::getLine).toList());
+        verify(verification, never()).sendVerificationEmail(eq(100L), anyString(), anyString());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        UserImportReport report = importCsv("fullName,email,password\r\n"
+                + "\"Doe, Jane \"\"JD\"\"\nSecond line\",jane@example.com,\"p,w\"\r\n"
+                + "\r\n"
+                + "Bob,bob@example.com,pw\r\n");
+
+        verify(hashing).encodeAll(List.of("p,w", "pw"));
+        verify(verification).sendVerificationEmail(100L, "Doe, Jane \"JD\"\nSecond line", "jane@example.com");
+        // lines are counted in the file, so a multi-line record and the blank line move Bob to line 5
+        assertEquals(List.of(2L, 5L), report.getRows().stream().map(UserImportReport.Row::getLine).toList());
+        assertEquals(2, report.getCreated());
+    }
+
+    @Test
+    void syntaxErrorIsReportedAfterTheChunksAlreadyCommitted() throws IOException {
+        UserImportReport report = importCsv("fullName,email,password\n"
+                + "A,a@example.com,pw-a\n"
+                + "B,b@example.com,pw-b\n"
+                + "\"C,c@example.com,pw-c\n"
+                + "D,d@example.com,pw-d\n");
+
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getFailed());
+        UserImportReport.Row error = report.getRows().get(2);
+        assertEquals(4L, error.getLine());
+        assertEquals(UserImportReport.Status.ERROR, error.getStatus());
+        assertEquals("Unterminated quoted field at line 4; this and the following rows were skipped", error.getError());
+        verify(jdbc).batchUpdate(anyString(), anyList());
+    }
+}